@@ -1,8 +1,10 @@
 package me.dannytatom.xibalba;
 
+import com.badlogic.gdx.math.Vector2;
 import com.strongjoshua.console.CommandExecutor;
 
 import me.dannytatom.xibalba.components.AttributesComponent;
+import me.dannytatom.xibalba.systems.DeathSystem;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.world.WorldManager;
 
@@ -31,6 +33,9 @@ public class ConsoleCommandExecutor extends CommandExecutor {
     AttributesComponent attributes = ComponentMappers.attributes.get(WorldManager.player);
     attributes.health = amount;
 
+    // Death only checks on whoever got hurt, so let it know
+    WorldManager.engine.getSystem(DeathSystem.class).hurt(WorldManager.player);
+
     console.log("[GREEN] Health now at " + attributes.health);
   }
 
@@ -76,13 +81,39 @@ public class ConsoleCommandExecutor extends CommandExecutor {
     }
   }
 
+  /**
+   * Toggle only making levels as the player gets near them. Takes effect on the next new game.
+   *
+   * @param on Toggle
+   */
+  public void lazyWorld(Boolean on) {
+    if (on) {
+      Main.debug.lazyWorldEnabled = true;
+      console.log("[GREEN]Lazy World: ON");
+    } else {
+      Main.debug.lazyWorldEnabled = false;
+      console.log("[RED]Lazy World: OFF");
+    }
+  }
+
+  /**
+   * Set how far from the player monsters get a turn every turn, past that they only get one every
+   * so often.
+   *
+   * @param radius Distance in cells
+   */
+  public void simulationRadius(Integer radius) {
+    Main.debug.simulationRadius = radius;
+
+    console.log("[GREEN]Simulation radius now at " + radius);
+  }
+
   /**
    * Teleport to entrance.
    */
   public void goToEntrance() {
-    ComponentMappers.position.get(WorldManager.player).pos.set(
-        WorldManager.world.getCurrentMap().entrance
-    );
+    Vector2 entrance = WorldManager.world.getCurrentMap().entrance;
+    WorldManager.entityHelpers.updatePosition(WorldManager.player, entrance.x, entrance.y);
 
     WorldManager.entityHelpers.updateSenses(WorldManager.player);
   }
@@ -91,9 +122,8 @@ public class ConsoleCommandExecutor extends CommandExecutor {
    * Teleport to exit.
    */
   public void goToExit() {
-    ComponentMappers.position.get(WorldManager.player).pos.set(
-        WorldManager.world.getCurrentMap().exit
-    );
+    Vector2 exit = WorldManager.world.getCurrentMap().exit;
+    WorldManager.entityHelpers.updatePosition(WorldManager.player, exit.x, exit.y);
 
     WorldManager.entityHelpers.updateSenses(WorldManager.player);
   }
@@ -6,5 +6,7 @@ public class Debug {
   public boolean debugEnabled = false;
   public boolean fieldOfViewEnabled = true;
   public boolean weatherEnabled = true;
+  public boolean lazyWorldEnabled = true;
+  public int simulationRadius = 30;
   public HashMap<String, String> gl = new HashMap<>();
 }
@@ -25,6 +25,7 @@ import me.dannytatom.xibalba.utils.CameraShake;
 import me.dannytatom.xibalba.utils.HandheldCamera;
 import me.dannytatom.xibalba.utils.SoundManager;
 import me.dannytatom.xibalba.utils.SpriteAccessor;
+import me.dannytatom.xibalba.utils.TemplateRegistry;
 
 public class Main extends Game {
   public static final int SPRITE_WIDTH = 10;
@@ -38,6 +39,7 @@ public class Main extends Game {
   public static HashMap<String, String> godsData;
   public static HashMap<String, String> enemiesData;
   public static HashMap<String, String> itemsData;
+  public static TemplateRegistry templates;
   public static Skin skin;
   public static Screen playScreen;
   public static TweenManager tweenManager;
@@ -241,7 +241,7 @@ public class PlayerInput implements InputProcessor {
       // Close dialogs or cancel actions
       case Keys.Q:
         playerDetails.target = null;
-        playerDetails.path = null;
+        playerDetails.path.clear();
 
         if (WorldManager.state == WorldManager.State.MOVING) {
           WorldManager.player.remove(MouseMovementComponent.class);
@@ -268,7 +268,7 @@ public class PlayerInput implements InputProcessor {
           }
 
           playerDetails.target = null;
-          playerDetails.path = null;
+          playerDetails.path.clear();
         }
         break;
       case Keys.SHIFT_LEFT:
@@ -330,7 +330,7 @@ public class PlayerInput implements InputProcessor {
       } else {
         if (ComponentMappers.mouseMovement.get(WorldManager.player) == null) {
           if (WorldManager.mapHelpers.cellExists(mousePosition)
-              && !WorldManager.mapHelpers.getCell(mousePosition.x, mousePosition.y).hidden) {
+              && !WorldManager.mapHelpers.getCell(mousePosition.x, mousePosition.y).isHidden()) {
             WorldManager.player.add(new MouseMovementComponent());
 
             WorldManager.state = WorldManager.State.MOVING;
@@ -378,7 +378,7 @@ public class PlayerInput implements InputProcessor {
     switch (WorldManager.state) {
       case PLAYING:
         playerDetails.target = null;
-        playerDetails.path = null;
+        playerDetails.path.clear();
 
         if (WorldManager.mapHelpers.cellExists(mousePosition)) {
           handleLooking(relativeToPlayer, true);
@@ -388,7 +388,7 @@ public class PlayerInput implements InputProcessor {
         break;
       case LOOKING:
         playerDetails.target = null;
-        playerDetails.path = null;
+        playerDetails.path.clear();
 
         if (WorldManager.mapHelpers.cellExists(mousePosition)) {
           handleLooking(relativeToPlayer, false);
@@ -398,7 +398,7 @@ public class PlayerInput implements InputProcessor {
         break;
       case TARGETING:
         playerDetails.target = null;
-        playerDetails.path = null;
+        playerDetails.path.clear();
 
         if (WorldManager.mapHelpers.cellExists(mousePosition)) {
           WorldManager.inputHelpers.handleTargeting(relativeToPlayer);
@@ -432,9 +432,10 @@ public class PlayerInput implements InputProcessor {
    * @param pos    The position we're attempting to move to
    */
   private void handleMovement(int energy, Vector2 pos) {
+    PlayerComponent player = ComponentMappers.player.get(WorldManager.player);
+
     if (holdingShift) {
       Entity enemy = WorldManager.mapHelpers.getEnemyAt(pos);
-      PlayerComponent player = ComponentMappers.player.get(WorldManager.player);
 
       if (enemy != null) {
         WorldManager.state = WorldManager.State.FOCUSED;
@@ -443,7 +444,7 @@ public class PlayerInput implements InputProcessor {
       }
     } else {
       if (energy >= MovementComponent.COST) {
-        WorldManager.player.add(new MovementComponent(pos));
+        WorldManager.player.add(player.step.set((int) pos.x, (int) pos.y));
 
         WorldManager.executeTurn = true;
       }
@@ -451,7 +452,7 @@ public class PlayerInput implements InputProcessor {
 
     PlayerComponent playerDetails = ComponentMappers.player.get(WorldManager.player);
 
-    playerDetails.path = null;
+    playerDetails.path.clear();
   }
 
   private void handleLooking(Vector2 pos, boolean careAboutWalls) {
@@ -18,7 +18,7 @@ public enum Brain implements State<Entity> {
     public void enter(Entity entity) {
       BrainComponent brain = ComponentMappers.brain.get(entity);
 
-      brain.path = null;
+      brain.path.clear();
     }
 
     @Override
@@ -36,7 +36,7 @@ public enum Brain implements State<Entity> {
     public void enter(Entity entity) {
       BrainComponent brain = ComponentMappers.brain.get(entity);
 
-      brain.path = null;
+      brain.path.clear();
     }
 
     @Override
@@ -56,15 +56,17 @@ public enum Brain implements State<Entity> {
         return;
       }
 
-      if (brain.path == null || brain.path.size == 0) {
+      if (brain.path.isEmpty()) {
         PositionComponent position = ComponentMappers.position.get(entity);
 
         if (brain.dna.contains(BrainComponent.Dna.AQUATIC, false)) {
-          brain.path
-              = WorldManager.world.getCurrentMap().dijkstra.findWanderWaterPath(position.pos);
+          WorldManager.world.getCurrentMap().dijkstra.findWanderWaterPath(
+              position.pos, brain.path
+          );
         } else if (brain.dna.contains(BrainComponent.Dna.TERRESTRIAL, false)) {
-          brain.path
-              = WorldManager.world.getCurrentMap().dijkstra.findWanderLandPath(position.pos);
+          WorldManager.world.getCurrentMap().dijkstra.findWanderLandPath(
+              position.pos, brain.path
+          );
         }
       }
     }
@@ -75,7 +77,7 @@ public enum Brain implements State<Entity> {
     public void enter(Entity entity) {
       BrainComponent brain = ComponentMappers.brain.get(entity);
 
-      brain.path = null;
+      brain.path.clear();
     }
 
     @Override
@@ -100,17 +102,18 @@ public enum Brain implements State<Entity> {
       // If they've already finished the path or the player has changed positions,
       // create a new path.
 
-      boolean makeNewPath = brain.path == null || brain.path.size == 0
-          || !playerPosition.pos.epsilonEquals(brain.path.get(brain.path.size - 1), 0.00001f);
+      boolean makeNewPath = brain.path.isEmpty()
+          || brain.path.getLastX() != (int) playerPosition.pos.x
+          || brain.path.getLastY() != (int) playerPosition.pos.y;
 
       if (makeNewPath) {
         if (brain.dna.contains(BrainComponent.Dna.AQUATIC, false)) {
-          brain.path = WorldManager.world.getCurrentMap().dijkstra.findTargetPlayerWaterPath(
-              position.pos
+          WorldManager.world.getCurrentMap().dijkstra.findTargetPlayerWaterPath(
+              position.pos, brain.path
           );
         } else if (brain.dna.contains(BrainComponent.Dna.TERRESTRIAL, false)) {
-          brain.path = WorldManager.world.getCurrentMap().dijkstra.findTargetPlayerLandPath(
-              position.pos
+          WorldManager.world.getCurrentMap().dijkstra.findTargetPlayerLandPath(
+              position.pos, brain.path
           );
         }
       }
@@ -122,7 +125,7 @@ public enum Brain implements State<Entity> {
     public void enter(Entity entity) {
       BrainComponent brain = ComponentMappers.brain.get(entity);
 
-      brain.path = null;
+      brain.path.clear();
     }
 
     @Override
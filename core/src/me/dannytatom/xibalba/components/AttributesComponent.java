@@ -2,6 +2,8 @@ package me.dannytatom.xibalba.components;
 
 import com.badlogic.ashley.core.Component;
 
+import me.dannytatom.xibalba.world.FieldOfView;
+
 public class AttributesComponent implements Component {
   public final String description;
   public final String name;
@@ -18,8 +20,8 @@ public class AttributesComponent implements Component {
   public int health;
   public int oxygen;
   public int energy;
-  public float[][] visionMap;
-  public float[][] hearingMap;
+  public final FieldOfView visionMap;
+  public final FieldOfView hearingMap;
 
   /**
    * Holds entity attributes.
@@ -51,6 +53,9 @@ public class AttributesComponent implements Component {
     this.health = maxHealth;
     this.oxygen = maxOxygen;
     this.divineFavor = 0.1f;
+
+    this.visionMap = new FieldOfView();
+    this.hearingMap = new FieldOfView();
   }
 
   public enum Type {
@@ -4,10 +4,11 @@ import com.badlogic.ashley.core.Component;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.ai.fsm.DefaultStateMachine;
 import com.badlogic.gdx.ai.fsm.StateMachine;
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 
 import me.dannytatom.xibalba.brain.Brain;
+import me.dannytatom.xibalba.components.actions.MovementComponent;
+import me.dannytatom.xibalba.world.Path;
 
 public class BrainComponent implements Component {
   public final StateMachine<Entity, Brain> stateMachine;
@@ -18,9 +19,12 @@ public class BrainComponent implements Component {
   public float fear;
   public float fearThreshold;
 
-  public Array<Vector2> path;
+  public final Path path;
   public Entity target;
 
+  // Handed back to the entity for each step of the path
+  public final MovementComponent step;
+
   /**
    * The brain.
    *
@@ -30,6 +34,8 @@ public class BrainComponent implements Component {
     stateMachine = new DefaultStateMachine<>(entity, Brain.SLEEP);
 
     dna = new Array<>();
+    path = new Path();
+    step = new MovementComponent();
 
     fear = 0f;
   }
@@ -12,12 +12,12 @@ public class EffectsComponent implements Component {
   public final ArrayList<Effect> effects;
 
   /**
-   * Effects for an item.
+   * Effects for an item. Copied, since crafting & applying add to them.
    *
    * @param data Item data
    */
   public EffectsComponent(ItemData data) {
-    this.effects = data.effects;
+    this.effects = new ArrayList<>(data.effects);
   }
 
   /**
@@ -26,7 +26,7 @@ public class EffectsComponent implements Component {
    * @param data Enemy data
    */
   public EffectsComponent(EnemyData data) {
-    this.effects = data.effects;
+    this.effects = new ArrayList<>(data.effects);
   }
 
   public EffectsComponent() {
@@ -34,7 +34,7 @@ public class ItemComponent implements Component {
   /**
    * Initialize item component from yaml data.
    *
-   * @param key         The key for `Main.itemsData`
+   * @param key         The key for `Main.templates.items`
    * @param name        Item name
    * @param description Item description
    * @param data        Item data
@@ -49,7 +49,8 @@ public class ItemComponent implements Component {
     this.twoHanded = data.twoHanded;
     this.skill = data.skill;
 
-    this.attributes = data.attributes;
+    // Crafting changes these, everything else is read only
+    this.attributes = data.attributes == null ? null : new HashMap<>(data.attributes);
     this.actions = data.actions == null ? null : new Array<>(data.actions.toArray(new String[0]));
     this.verbs = data.verbs == null ? null : new Array<>(data.verbs.toArray(new String[0]));
 
@@ -5,15 +5,15 @@ import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 
-import java.util.List;
-
 import me.dannytatom.xibalba.abilities.Ability;
-
-import org.xguzm.pathfinding.grid.GridCell;
+import me.dannytatom.xibalba.components.actions.MovementComponent;
+import me.dannytatom.xibalba.world.Path;
 
 public class PlayerComponent implements Component {
   public final Array<String> identifiedItems = new Array<>();
-  public List<GridCell> path = null;
+  public final Path path = new Path();
+  // Handed back to the player for each step of a path, whether it's from the mouse or exploring
+  public final MovementComponent step = new MovementComponent();
   public Vector2 target = null;
   public Entity lastHitEntity = null;
   public FocusedAction focusedAction = null;
@@ -16,4 +16,21 @@ public class MovementComponent implements Component {
   public MovementComponent(Vector2 pos) {
     this.pos = pos;
   }
+
+  public MovementComponent() {
+    this(new Vector2());
+  }
+
+  /**
+   * Point it at another cell, so whoever's walking a path can hand the same one over every step.
+   *
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   * @return This
+   */
+  public MovementComponent set(int cellX, int cellY) {
+    pos.set(cellX, cellY);
+
+    return this;
+  }
 }
@@ -56,7 +56,7 @@ public class JumpOverEnemy extends Effect {
                 newPosition.x * Main.SPRITE_WIDTH, newPosition.y * Main.SPRITE_HEIGHT
             ).setCallback((type, source) -> {
               if (type == TweenCallback.COMPLETE) {
-                casterPosition.pos.set(newPosition);
+                WorldManager.entityHelpers.updatePosition(caster, newPosition.x, newPosition.y);
               }
             })
         );
@@ -41,11 +41,11 @@ public class Knockback extends Effect {
               newPosition.x * Main.SPRITE_WIDTH, newPosition.y * Main.SPRITE_HEIGHT
           ).setCallback((type, source) -> {
             if (type == TweenCallback.COMPLETE) {
-              targetPosition.pos.set(newPosition);
+              WorldManager.entityHelpers.updatePosition(target, newPosition.x, newPosition.y);
 
               Vector2 behindNewPosition = getCellBehind(casterPosition.pos, targetPosition.pos);
 
-              if (WorldManager.mapHelpers.getCell(behindNewPosition).type == MapCell.Type.WALL
+              if (WorldManager.mapHelpers.getCell(behindNewPosition).getType() == MapCell.Type.WALL
                   || WorldManager.mapHelpers.getEnemyAt(behindNewPosition) != null) {
                 Main.cameraShake.shake(.5f, .1f);
 
@@ -13,8 +13,10 @@ import me.dannytatom.xibalba.components.EquipmentComponent;
 import me.dannytatom.xibalba.components.ItemComponent;
 import me.dannytatom.xibalba.components.PositionComponent;
 import me.dannytatom.xibalba.components.VisualComponent;
+import me.dannytatom.xibalba.systems.DeathSystem;
+import me.dannytatom.xibalba.systems.TurnScheduler;
 import me.dannytatom.xibalba.utils.ComponentMappers;
-import me.dannytatom.xibalba.world.Map;
+import me.dannytatom.xibalba.world.FieldOfView;
 import me.dannytatom.xibalba.world.MapCell;
 import me.dannytatom.xibalba.world.ShadowCaster;
 import me.dannytatom.xibalba.world.WorldManager;
@@ -58,9 +60,13 @@ public class EntityHelpers {
   public boolean isVisible(Entity entity) {
     PositionComponent entityPosition = ComponentMappers.position.get(entity);
 
-    return entityPosition != null
-        && !WorldManager.mapHelpers.getCell(entityPosition.pos.x, entityPosition.pos.y).hidden
-        && !WorldManager.mapHelpers.getCell(entityPosition.pos.x, entityPosition.pos.y).forgotten;
+    if (entityPosition == null) {
+      return false;
+    }
+
+    MapCell cell = WorldManager.mapHelpers.getCell(entityPosition.pos.x, entityPosition.pos.y);
+
+    return !cell.isHidden() && !cell.isForgotten();
   }
 
   /**
@@ -98,29 +104,33 @@ public class EntityHelpers {
    * @param entity The entity
    */
   public void updateSenses(Entity entity) {
+    updateSenses(entity, caster);
+  }
+
+  /**
+   * Update an entity's senses with a specific caster, for when it's being done off the main
+   * thread. Only writes to the entity's own vision & hearing maps.
+   *
+   * @param entity The entity
+   * @param caster Caster to use, one per thread
+   */
+  public void updateSenses(Entity entity, ShadowCaster caster) {
     AttributesComponent attributes = ComponentMappers.attributes.get(entity);
     PositionComponent position = ComponentMappers.position.get(entity);
 
-    float[][] fovMap = WorldManager.mapHelpers.createFovMap();
+    float[][] fovMap = WorldManager.mapHelpers.getFovMap();
 
-    attributes.hearingMap = caster.calculateFov(
-        fovMap, (int) position.pos.x, (int) position.pos.y, attributes.hearing
+    caster.calculateFov(
+        fovMap, (int) position.pos.x, (int) position.pos.y, attributes.hearing,
+        attributes.hearingMap
     );
 
     if (!Main.debug.fieldOfViewEnabled && ComponentMappers.player.has(entity)) {
-      Map map = WorldManager.world.getCurrentMap();
-      float[][] visionMap = new float[map.width][map.height];
-
-      for (int x = 0; x < map.width; x++) {
-        for (int y = 0; y < map.height; y++) {
-          visionMap[x][y] = 1;
-        }
-      }
-
-      attributes.visionMap = visionMap;
+      attributes.visionMap.seeEverything(WorldManager.world.getCurrentMap());
     } else {
-      attributes.visionMap = caster.calculateFov(
-          fovMap, (int) position.pos.x, (int) position.pos.y, attributes.vision
+      caster.calculateFov(
+          fovMap, (int) position.pos.x, (int) position.pos.y, attributes.vision,
+          attributes.visionMap
       );
     }
   }
@@ -143,7 +153,7 @@ public class EntityHelpers {
     int cellX = (int) targetPosition.pos.x;
     int cellY = (int) targetPosition.pos.y;
 
-    return attributes.visionMap[cellX][cellY] > 0;
+    return attributes.visionMap.get(cellX, cellY) > 0;
   }
 
   /**
@@ -157,7 +167,7 @@ public class EntityHelpers {
     AttributesComponent attributes = ComponentMappers.attributes.get(listener);
     PositionComponent targetPosition = ComponentMappers.position.get(target);
 
-    return attributes.hearingMap[(int) targetPosition.pos.x][(int) targetPosition.pos.y] > 0;
+    return attributes.hearingMap.get((int) targetPosition.pos.x, (int) targetPosition.pos.y) > 0;
   }
 
   public boolean canSense(Entity entity, Entity target) {
@@ -172,10 +182,10 @@ public class EntityHelpers {
    */
   public boolean enemyInSight(Entity entity) {
     AttributesComponent attributes = ComponentMappers.attributes.get(entity);
-    float[][] vision = attributes.visionMap;
+    FieldOfView vision = attributes.visionMap;
 
-    for (int x = 0; x < vision.length; x++) {
-      for (int y = 0; y < vision[x].length; y++) {
+    for (int x = vision.getX(); x < vision.getX() + vision.getWidth(); x++) {
+      for (int y = vision.getY(); y < vision.getY() + vision.getHeight(); y++) {
         Entity enemy = WorldManager.mapHelpers.getEnemyAt(x, y);
 
         if (enemy != null && canSee(entity, enemy)) {
@@ -245,6 +255,7 @@ public class EntityHelpers {
       entity.add(new PositionComponent((int) cellX, (int) cellY));
     } else {
       ComponentMappers.position.get(entity).pos.set(cellX, cellY);
+      WorldManager.entityIndex.update(entity);
     }
   }
 
@@ -263,7 +274,7 @@ public class EntityHelpers {
     MapCell cell = WorldManager.mapHelpers.getCell(cellX, cellY);
 
     if (cell.isWater()) {
-      Color tinted = visual.color.cpy().lerp(cell.sprite.getColor(), .5f);
+      Color tinted = visual.color.cpy().lerp(cell.getTile().color, .5f);
 
       if (visual.sprite.getColor() != tinted) {
         visual.sprite.setColor(tinted);
@@ -313,6 +324,9 @@ public class EntityHelpers {
     if (ComponentMappers.player.has(entity)) {
       ComponentMappers.player.get(entity).totalDamageReceived += amount;
     }
+
+    WorldManager.engine.getSystem(DeathSystem.class).hurt(entity);
+    WorldManager.engine.getSystem(TurnScheduler.class).wake(entity);
   }
 
   /**
@@ -38,7 +38,7 @@ public class InputHelpers {
       handleTargeting(closestPosition.pos.cpy().sub(playerPosition.pos));
     } else {
       playerDetails.target = null;
-      playerDetails.path = null;
+      playerDetails.path.clear();
     }
   }
 
@@ -247,6 +247,7 @@ public class ItemHelpers {
     if (inventory != null) {
       item.remove(PositionComponent.class);
       inventory.items.add(item);
+      WorldManager.world.carry(item);
 
       EquipmentComponent equipment = ComponentMappers.equipment.get(entity);
       ItemComponent itemDetails = ComponentMappers.item.get(item);
@@ -548,6 +549,10 @@ public class ItemHelpers {
 
       WorldManager.entityHelpers.updatePosition(item, position.x, position.y);
 
+      if (!destroy) {
+        WorldManager.world.place(item);
+      }
+
       if (ComponentMappers.effects.has(item)) {
         for (Effect effect : ComponentMappers.effects.get(item).effects) {
           if (effect.trigger == Effect.Trigger.DROP) {
@@ -1,26 +1,23 @@
 package me.dannytatom.xibalba.helpers;
 
 import com.badlogic.ashley.core.Entity;
-import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.utils.ImmutableArray;
-import com.badlogic.gdx.graphics.Colors;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntSet;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 import me.dannytatom.xibalba.components.AttributesComponent;
-import me.dannytatom.xibalba.components.DecorationComponent;
-import me.dannytatom.xibalba.components.EnemyComponent;
-import me.dannytatom.xibalba.components.LightComponent;
 import me.dannytatom.xibalba.components.PlayerComponent;
 import me.dannytatom.xibalba.components.PositionComponent;
-import me.dannytatom.xibalba.components.TrapComponent;
 import me.dannytatom.xibalba.utils.ComponentMappers;
+import me.dannytatom.xibalba.world.CellSampler;
 import me.dannytatom.xibalba.world.Map;
 import me.dannytatom.xibalba.world.MapCell;
-import me.dannytatom.xibalba.world.MapFire;
+import me.dannytatom.xibalba.world.Path;
 import me.dannytatom.xibalba.world.WorldManager;
 
 import org.xguzm.pathfinding.grid.GridCell;
@@ -40,11 +37,10 @@ public class MapHelpers {
    * @return If it does indeed exist
    */
   private boolean cellExists(int cellX, int cellY) {
-    MapCell[][] map = WorldManager.world.getCurrentMap().getCellMap();
+    Map map = WorldManager.world.getCurrentMap();
 
-    return cellX > 0 && cellX < map.length
-        && cellY > 0 && cellY < map[0].length
-        && getCell(cellX, cellY) != null;
+    return cellX > 0 && cellX < map.width
+        && cellY > 0 && cellY < map.height;
   }
 
   public boolean cellExists(Vector2 position) {
@@ -52,7 +48,7 @@ public class MapHelpers {
   }
 
   private MapCell getCell(int mapIndex, int cellX, int cellY) {
-    return WorldManager.world.getMap(mapIndex).getCellMap()[cellX][cellY];
+    return WorldManager.world.getMap(mapIndex).getCell(cellX, cellY);
   }
 
   public MapCell getCell(int cellX, int cellY) {
@@ -78,32 +74,28 @@ public class MapHelpers {
    * @return Is it blocked?
    */
   public boolean isBlocked(int mapIndex, Vector2 position) {
-    MapCell[][] map = WorldManager.world.getMap(mapIndex).getCellMap();
+    Map map = WorldManager.world.getMap(mapIndex);
 
-    boolean blocked = map[(int) position.x][(int) position.y].isWall()
-        || map[(int) position.x][(int) position.y].isNothing();
+    boolean blocked = map.isOpaque((int) position.x, (int) position.y);
 
     if (!blocked) {
-      ImmutableArray<Entity> entities =
-          WorldManager.engine.getEntitiesFor(
-              Family.all(PositionComponent.class).exclude(LightComponent.class).get()
-          );
-
-      for (Entity entity : entities) {
-        PositionComponent ep = ComponentMappers.position.get(entity);
-
-        if (ep != null && ep.pos.epsilonEquals(position, 0.00001f)) {
-          if (ComponentMappers.decoration.has(entity)) {
-            if (ComponentMappers.decoration.get(entity).blocks) {
-              blocked = true;
-              break;
-            }
-          } else if (ComponentMappers.trap.has(entity)) {
-            blocked = false;
-          } else {
+      Array<Entity> entities = WorldManager.entityIndex.get(position);
+
+      for (int i = 0; i < entities.size; i++) {
+        Entity entity = entities.get(i);
+
+        if (ComponentMappers.light.has(entity)) {
+          continue;
+        }
+
+        if (ComponentMappers.decoration.has(entity)) {
+          if (ComponentMappers.decoration.get(entity).blocks) {
             blocked = true;
             break;
           }
+        } else if (!ComponentMappers.trap.has(entity)) {
+          blocked = true;
+          break;
         }
       }
     }
@@ -112,31 +104,25 @@ public class MapHelpers {
   }
 
   /**
-   * Create a Field of View map for given map.
+   * Get the Field of View map for given map. 1 is blocked, 0 is not.
+   *
+   * <p>This is the map's own resistance map, kept up to date as cells change, so treat it as
+   * read-only.
    *
    * @param mapIndex Which map to use
    * @return FoV map
    */
-  public float[][] createFovMapFor(int mapIndex) {
-    Map map = WorldManager.world.getMap(mapIndex);
-    float[][] resistanceMap = new float[map.width][map.height];
-
-    for (int x = 0; x < map.width; x++) {
-      for (int y = 0; y < map.height; y++) {
-        resistanceMap[x][y] = (getCell(x, y).isWall() || getCell(x, y).isNothing()) ? 1 : 0;
-      }
-    }
-
-    return resistanceMap;
+  public float[][] getFovMapFor(int mapIndex) {
+    return WorldManager.world.getMap(mapIndex).getResistanceMap();
   }
 
   /**
-   * Get starting light world. 1 is blocked, 0 is not.
+   * Get the Field of View map for the current map.
    *
    * @return Resistance world
    */
-  public float[][] createFovMap() {
-    return createFovMapFor(WorldManager.world.currentMapIndex);
+  public float[][] getFovMap() {
+    return getFovMapFor(WorldManager.world.currentMapIndex);
   }
 
   /**
@@ -153,10 +139,9 @@ public class MapHelpers {
 
     for (int x = 0; x < map.width; x++) {
       for (int y = 0; y < map.height; y++) {
-        boolean canTarget = cellExists(new Vector2(x, y))
-            && !getCell(x, y).isWall()
-            && !getCell(x, y).isNothing()
-            && !getCell(x, y).hidden;
+        boolean canTarget = cellExists(x, y)
+            && !map.isOpaque(x, y)
+            && !map.isHidden(x, y);
 
         cells[x][y] = new GridCell(x, y, canTarget);
       }
@@ -175,7 +160,7 @@ public class MapHelpers {
       playerDetails.target = playerDetails.target.add(end);
     }
 
-    playerDetails.path = finder.findPath(
+    List<GridCell> found = finder.findPath(
         (int) start.x, (int) start.y,
         (int) playerDetails.target.x, (int) playerDetails.target.y, grid
     );
@@ -183,16 +168,18 @@ public class MapHelpers {
     AttributesComponent playerAttributes = ComponentMappers.attributes.get(WorldManager.player);
     int maxDistance = (playerAttributes.strength <= 4 ? 4 : playerAttributes.strength);
 
-    if (playerDetails.path == null || playerDetails.path.size() > maxDistance) {
+    if (found == null || found.size() > maxDistance) {
       playerDetails.target = oldTarget;
 
       if (playerDetails.target != null) {
-        playerDetails.path = finder.findPath(
+        found = finder.findPath(
             (int) start.x, (int) start.y,
             (int) playerDetails.target.x, (int) playerDetails.target.y, grid
         );
       }
     }
+
+    setPath(playerDetails.path, found);
   }
 
   /**
@@ -212,11 +199,11 @@ public class MapHelpers {
         boolean canTarget;
 
         if (careAboutWalls) {
-          canTarget = cellExists(new Vector2(x, y))
-              && !getCell(x, y).hidden
-              && !getCell(x, y).isWall();
+          canTarget = cellExists(x, y)
+              && !map.isHidden(x, y)
+              && !map.isWall(x, y);
         } else {
-          canTarget = cellExists(new Vector2(x, y)) && !getCell(x, y).hidden;
+          canTarget = cellExists(x, y) && !map.isHidden(x, y);
         }
 
         cells[x][y] = new GridCell(x, y, canTarget);
@@ -236,21 +223,36 @@ public class MapHelpers {
       playerDetails.target = playerDetails.target.add(end);
     }
 
-    playerDetails.path = finder.findPath(
+    List<GridCell> found = finder.findPath(
         (int) start.x, (int) start.y,
         (int) playerDetails.target.x, (int) playerDetails.target.y, grid
     );
 
-    if (playerDetails.path == null) {
+    if (found == null) {
       playerDetails.target = oldTarget;
 
       if (playerDetails.target != null) {
-        playerDetails.path = finder.findPath(
+        found = finder.findPath(
             (int) start.x, (int) start.y,
             (int) playerDetails.target.x, (int) playerDetails.target.y, grid
         );
       }
     }
+
+    setPath(playerDetails.path, found);
+  }
+
+  // A* hands back its own list, copy it over once so walking it doesn't touch it again
+  private void setPath(Path path, List<GridCell> cells) {
+    path.clear();
+
+    if (cells != null) {
+      for (int i = 0; i < cells.size(); i++) {
+        GridCell cell = cells.get(i);
+
+        path.add(cell.getX(), cell.getY());
+      }
+    }
   }
 
   public Entity getEntityAt(Vector2 position) {
@@ -265,17 +267,12 @@ public class MapHelpers {
    * @return Either the entity or null if none were found
    */
   public Entity getEntityAt(float cellX, float cellY) {
-    ImmutableArray<Entity> entities =
-        WorldManager.engine.getEntitiesFor(
-            Family.all(PositionComponent.class).exclude(
-                DecorationComponent.class, LightComponent.class
-            ).get()
-        );
+    Array<Entity> entities = WorldManager.entityIndex.get((int) cellX, (int) cellY);
 
-    for (Entity entity : entities) {
-      PositionComponent entityPosition = ComponentMappers.position.get(entity);
+    for (int i = 0; i < entities.size; i++) {
+      Entity entity = entities.get(i);
 
-      if (entityPosition.pos.x == cellX && entityPosition.pos.y == cellY) {
+      if (!ComponentMappers.decoration.has(entity) && !ComponentMappers.light.has(entity)) {
         return entity;
       }
     }
@@ -291,16 +288,12 @@ public class MapHelpers {
    */
   public ArrayList<Entity> getEntitiesAt(Vector2 position) {
     ArrayList<Entity> list = new ArrayList<>();
+    Array<Entity> entities = WorldManager.entityIndex.get(position);
 
-    ImmutableArray<Entity> entities =
-        WorldManager.engine.getEntitiesFor(
-            Family.all(PositionComponent.class).exclude(LightComponent.class).get()
-        );
-
-    for (Entity entity : entities) {
-      PositionComponent entityPosition = ComponentMappers.position.get(entity);
+    for (int i = 0; i < entities.size; i++) {
+      Entity entity = entities.get(i);
 
-      if (entityPosition != null && entityPosition.pos.epsilonEquals(position, 0.00001f)) {
+      if (!ComponentMappers.light.has(entity)) {
         list.add(entity);
       }
     }
@@ -308,6 +301,25 @@ public class MapHelpers {
     return list;
   }
 
+  /**
+   * Whether there's anything (other than light) at a given position.
+   *
+   * @param cellX x
+   * @param cellY y
+   * @return Yes/no
+   */
+  public boolean hasEntitiesAt(int cellX, int cellY) {
+    Array<Entity> entities = WorldManager.entityIndex.get(cellX, cellY);
+
+    for (int i = 0; i < entities.size; i++) {
+      if (!ComponentMappers.light.has(entities.get(i))) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
   /**
    * Get enemy from a location.
    *
@@ -326,13 +338,12 @@ public class MapHelpers {
    * @return Either an enemy or null if none were found
    */
   public Entity getEnemyAt(int cellX, int cellY) {
-    ImmutableArray<Entity> entities =
-        WorldManager.engine.getEntitiesFor(Family.all(EnemyComponent.class).get());
+    Array<Entity> entities = WorldManager.entityIndex.get(cellX, cellY);
 
-    for (Entity entity : entities) {
-      PositionComponent entityPosition = ComponentMappers.position.get(entity);
+    for (int i = 0; i < entities.size; i++) {
+      Entity entity = entities.get(i);
 
-      if (entityPosition.pos.x == cellX && entityPosition.pos.y == cellY) {
+      if (ComponentMappers.enemy.has(entity)) {
         return entity;
       }
     }
@@ -383,15 +394,12 @@ public class MapHelpers {
    * @return The trap if one is found, null if not
    */
   public Entity getTrapAt(Vector2 position) {
-    ImmutableArray<Entity> entities =
-        WorldManager.engine.getEntitiesFor(
-            Family.all(TrapComponent.class).get()
-        );
+    Array<Entity> entities = WorldManager.entityIndex.get(position);
 
-    for (Entity entity : entities) {
-      PositionComponent entityPosition = ComponentMappers.position.get(entity);
+    for (int i = 0; i < entities.size; i++) {
+      Entity entity = entities.get(i);
 
-      if (entityPosition.pos.epsilonEquals(position, 0.00001f)) {
+      if (ComponentMappers.trap.has(entity)) {
         return entity;
       }
     }
@@ -427,63 +435,134 @@ public class MapHelpers {
   /**
    * Find a random open cell on any world.
    *
-   * @return Random open cell
+   * @param index Index of map to look on
+   * @return Random open cell, null if there isn't any floor
    */
   public Vector2 getRandomOpenPositionOnLand(int index) {
     Map map = WorldManager.world.getMap(index);
-    MapCell[][] cellMap = map.getCellMap();
 
-    int cellX = 0;
-    int cellY = 0;
+    return toPosition(map, map.getSampler().random(MapCell.Type.FLOOR));
+  }
 
-    boolean searching = true;
+  /**
+   * Find a random open cell on current world.
+   *
+   * @return Random open cell
+   */
+  public Vector2 getRandomOpenPositionOnLand() {
+    return getRandomOpenPositionOnLand(WorldManager.world.currentMapIndex);
+  }
 
-    while (searching) {
-      cellX = MathUtils.random(0, map.width - 1);
-      cellY = MathUtils.random(0, map.height - 1);
+  /**
+   * Find a random open cell on land nobody's standing on. If everywhere's taken, any open cell.
+   * Whatever's picked gets added to occupied, so placing a bunch of things in a row only needs
+   * the one set.
+   *
+   * @param index    Index of map to look on
+   * @param occupied Cells already taken, from getOccupiedCells
+   * @return Random open cell, null if there isn't any floor
+   */
+  public Vector2 getRandomUnoccupiedPositionOnLand(int index, IntSet occupied) {
+    Map map = WorldManager.world.getMap(index);
+    int cell = map.getSampler().random(MapCell.Type.FLOOR, occupied::contains);
 
-      if (cellMap[cellX][cellY].isFloor()) {
-        searching = false;
-      }
+    if (cell == -1) {
+      cell = map.getSampler().random(MapCell.Type.FLOOR);
     }
 
-    return new Vector2(cellX, cellY);
+    return claim(map, occupied, cell);
   }
 
   /**
-   * Find a random open cell on current world.
+   * Find a random open cell on land, nobody standing on it and not tucked into a wall.
    *
-   * @return Random open cell
+   * @param index Index of map to look on
+   * @return Random open cell, null if there isn't any floor
    */
-  public Vector2 getRandomOpenPositionOnLand() {
-    return getRandomOpenPositionOnLand(WorldManager.world.currentMapIndex);
+  public Vector2 getRandomOpenPositionAwayFromWalls(int index) {
+    Map map = WorldManager.world.getMap(index);
+    IntSet occupied = getOccupiedCells(index);
+
+    int cell = map.getSampler().random(MapCell.Type.FLOOR, candidate -> occupied.contains(candidate)
+        || getWallNeighbours(index, candidate / map.height, candidate % map.height) >= 4);
+
+    return cell == -1
+        ? getRandomUnoccupiedPositionOnLand(index, occupied) : toPosition(map, cell);
   }
 
   /**
-   * Get a random open position in water.
+   * Get a random open position in water, deep if there is any.
    *
    * @param index Index of map to look on
-   * @return A position
+   * @return A position, null if there's no water
    */
   public Vector2 getRandomOpenPositionInWater(int index) {
     Map map = WorldManager.world.getMap(index);
-    MapCell[][] cellMap = map.getCellMap();
+    CellSampler sampler = map.getSampler();
+
+    int cell = sampler.random(MapCell.Type.DEEP_WATER);
+
+    if (cell == -1) {
+      cell = sampler.random(MapCell.Type.SHALLOW_WATER);
+    }
+
+    return toPosition(map, cell);
+  }
+
+  /**
+   * Get a random position in water nobody's in, deep if there is any. Whatever's picked gets
+   * added to occupied.
+   *
+   * @param index    Index of map to look on
+   * @param occupied Cells already taken, from getOccupiedCells
+   * @return A position, null if there's no free water
+   */
+  public Vector2 getRandomUnoccupiedPositionInWater(int index, IntSet occupied) {
+    Map map = WorldManager.world.getMap(index);
+    CellSampler sampler = map.getSampler();
+
+    int cell = sampler.random(MapCell.Type.DEEP_WATER, occupied::contains);
 
-    int cellX = 0;
-    int cellY = 0;
+    if (cell == -1) {
+      cell = sampler.random(MapCell.Type.SHALLOW_WATER, occupied::contains);
+    }
+
+    return claim(map, occupied, cell);
+  }
 
-    boolean searching = true;
+  /**
+   * Every cell with something on it, indexed the same way as the map's. Build it once and hand
+   * it to the unoccupied pickers, they keep it up to date as they pick.
+   *
+   * @param index Index of map to look on
+   * @return Occupied cells
+   */
+  public IntSet getOccupiedCells(int index) {
+    Map map = WorldManager.world.getMap(index);
+    Array<Entity> entities = WorldManager.world.getEntities(index);
+    IntSet occupied = new IntSet(entities.size);
 
-    while (searching) {
-      cellX = MathUtils.random(0, map.width - 1);
-      cellY = MathUtils.random(0, map.height - 1);
+    for (Entity entity : entities) {
+      PositionComponent position = ComponentMappers.position.get(entity);
 
-      if (cellMap[cellX][cellY].isDeepWater()) {
-        searching = false;
+      if (position != null) {
+        occupied.add((int) position.pos.x * map.height + (int) position.pos.y);
       }
     }
 
-    return new Vector2(cellX, cellY);
+    return occupied;
+  }
+
+  private static Vector2 claim(Map map, IntSet occupied, int cell) {
+    if (cell != -1) {
+      occupied.add(cell);
+    }
+
+    return toPosition(map, cell);
+  }
+
+  private static Vector2 toPosition(Map map, int cell) {
+    return cell == -1 ? null : new Vector2(cell / map.height, cell % map.height);
   }
 
   /**
@@ -527,8 +606,8 @@ public class MapHelpers {
    * @param position Where it all beings
    */
   public void startFire(Vector2 position) {
-    WorldManager.world.getMap(WorldManager.world.currentMapIndex).fires.add(
-        new MapFire(WorldManager.world.currentMapIndex, position)
+    WorldManager.world.getCurrentMap().fire.start(
+        Math.round(position.x), Math.round(position.y)
     );
   }
 
@@ -538,14 +617,15 @@ public class MapHelpers {
    * @param position Cell to make wet
    */
   public void makeFloorWet(Vector2 position) {
-    MapCell cell = getCell(position.x, position.y);
+    Map map = WorldManager.world.getCurrentMap();
+    int cellX = (int) position.x;
+    int cellY = (int) position.y;
 
-    if (Objects.equals(cell.description, "bridge")) {
+    if (Objects.equals(map.getDescription(map.indexOf(cellX, cellY)), "bridge")) {
       return;
     }
 
-    cell.covered = MapCell.Covered.WATER;
-    cell.sprite.setColor(Colors.get(WorldManager.world.getCurrentMap().type + "FloorWet"));
+    map.setCovered(cellX, cellY, MapCell.Covered.WATER);
   }
 
   /**
@@ -554,9 +634,9 @@ public class MapHelpers {
    * @param position Position of map cell
    */
   public void makeFloorBloody(Vector2 position) {
-    MapCell cell = getCell(position.x, position.y);
-    cell.covered = MapCell.Covered.BLOOD;
-    cell.sprite.setColor(Colors.get("RED"));
+    WorldManager.world.getCurrentMap().setCovered(
+        (int) position.x, (int) position.y, MapCell.Covered.BLOOD
+    );
   }
 
   /**
@@ -565,8 +645,8 @@ public class MapHelpers {
    * @param position Position of map cell
    */
   public void makeFloorVomit(Vector2 position) {
-    MapCell cell = getCell(position.x, position.y);
-    cell.covered = MapCell.Covered.VOMIT;
-    cell.sprite.setColor(Colors.get("YELLOW"));
+    WorldManager.world.getCurrentMap().setCovered(
+        (int) position.x, (int) position.y, MapCell.Covered.VOMIT
+    );
   }
 }
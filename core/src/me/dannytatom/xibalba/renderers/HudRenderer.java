@@ -34,6 +34,7 @@ import me.dannytatom.xibalba.screens.PauseScreen;
 import me.dannytatom.xibalba.ui.ActionButton;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.world.MapCell;
+import me.dannytatom.xibalba.world.MapDijkstra;
 import me.dannytatom.xibalba.world.WorldManager;
 
 import org.apache.commons.lang3.text.WordUtils;
@@ -285,6 +286,13 @@ public class HudRenderer {
 
       positionInfo = "[DARK_GRAY]" + playerPosition.pos.toString()
           + (playerDetails.target != null ? ", " + playerDetails.target.toString() : "");
+
+      MapDijkstra dijkstra = WorldManager.world.getCurrentMap().dijkstra;
+      dijkstraInfo = "[DARK_GRAY]Dijkstra: "
+          + String.format("%.3f", dijkstra.lastUpdateTime / 1000000f) + "ms, "
+          + dijkstra.lastCellsVisited + " cells, cache "
+          + WorldManager.dijkstraCache.hits + "/" + WorldManager.dijkstraCache.misses + " ("
+          + WorldManager.dijkstraCache.getUsedBytes() / 1024 + "kb)";
     }
 
     if (gameInfo.getChildren().size == 0) {
@@ -358,7 +366,7 @@ public class HudRenderer {
       }
 
       MapCell cell = WorldManager.mapHelpers.getCell(playerPosition.pos.x, playerPosition.pos.y);
-      String cellDescription = "You stand on " + cell.description;
+      String cellDescription = "You stand on " + cell.getDescription();
 
       Label placeholder = (Label) areaDetails.getChildren().get(0);
       placeholder.setText(null);
@@ -373,10 +381,10 @@ public class HudRenderer {
           = WorldManager.mapHelpers.getCell(playerDetails.target.x, playerDetails.target.y);
       String cellDescription;
 
-      if (cell.forgotten) {
-        cellDescription = "You remember seeing " + cell.description;
+      if (cell.isForgotten()) {
+        cellDescription = "You remember seeing " + cell.getDescription();
       } else {
-        cellDescription = "You see " + cell.description;
+        cellDescription = "You see " + cell.getDescription();
       }
 
       Entity entity
@@ -0,0 +1,167 @@
+package me.dannytatom.xibalba.renderers;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.Arrays;
+
+import me.dannytatom.xibalba.Main;
+import me.dannytatom.xibalba.world.Map;
+import me.dannytatom.xibalba.world.MapTile;
+import me.dannytatom.xibalba.world.WorldManager;
+
+class TileLayer {
+  private static final int CHUNK_CELLS = Map.CHUNK_SIZE * Map.CHUNK_SIZE;
+
+  private final Map map;
+  private final SpriteCache cache;
+  private final TextureRegion blank;
+
+  // Per chunk: cache id, how many real sprites are in it, and the map revision it was built at
+  private final int[] cacheIds;
+  private final int[] counts;
+  private final int[] builtRevisions;
+
+  int chunksDrawn = 0;
+  int chunksRebuilt = 0;
+
+  /**
+   * Every cell that doesn't animate, baked into a SpriteCache in chunks. A chunk only gets rebuilt
+   * when the map says something in it changed (revealed, forgotten, wet, bloody, burning, someone
+   * standing on it, etc), otherwise it's one draw call no matter how many cells are in it.
+   *
+   * <p>Every chunk is given room for a full chunk of sprites, padded with empty ones, so it can
+   * always be rebuilt in place.
+   *
+   * @param map The map we're drawing
+   */
+  TileLayer(Map map) {
+    this.map = map;
+
+    int chunks = map.chunksX * map.chunksY;
+
+    this.cache = new SpriteCache(chunks * CHUNK_CELLS, false);
+    this.blank = Main.asciiAtlas.findRegion("0000");
+
+    this.cacheIds = new int[chunks];
+    this.counts = new int[chunks];
+    this.builtRevisions = new int[chunks];
+
+    Arrays.fill(cacheIds, -1);
+  }
+
+  /**
+   * Draw every chunk that overlaps the given cells. Don't call this between a SpriteBatch's begin
+   * and end.
+   *
+   * @param camera Camera to draw with
+   * @param minX   Leftmost visible cell
+   * @param minY   Bottom visible cell
+   * @param maxX   Rightmost visible cell
+   * @param maxY   Top visible cell
+   */
+  void render(OrthographicCamera camera, int minX, int minY, int maxX, int maxY) {
+    chunksDrawn = 0;
+    chunksRebuilt = 0;
+
+    int minChunkX = Math.max(minX / Map.CHUNK_SIZE, 0);
+    int minChunkY = Math.max(minY / Map.CHUNK_SIZE, 0);
+    int maxChunkX = Math.min(maxX / Map.CHUNK_SIZE, map.chunksX - 1);
+    int maxChunkY = Math.min(maxY / Map.CHUNK_SIZE, map.chunksY - 1);
+
+    for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+      for (int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++) {
+        int chunk = chunkX * map.chunksY + chunkY;
+        int revision = map.getChunkRevision(chunkX, chunkY);
+
+        if (cacheIds[chunk] == -1 || builtRevisions[chunk] != revision) {
+          build(chunk, chunkX, chunkY);
+          builtRevisions[chunk] = revision;
+        }
+      }
+    }
+
+    cache.setProjectionMatrix(camera.combined);
+    cache.begin();
+
+    for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+      for (int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++) {
+        int chunk = chunkX * map.chunksY + chunkY;
+
+        if (counts[chunk] > 0) {
+          cache.draw(cacheIds[chunk], 0, counts[chunk]);
+          chunksDrawn += 1;
+        }
+      }
+    }
+
+    cache.end();
+  }
+
+  /**
+   * Whether a cell should be drawn at all.
+   *
+   * @param map   The map
+   * @param index Cell index
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   * @return Yes/no
+   */
+  static boolean isDrawn(Map map, int index, int cellX, int cellY) {
+    if (map.isHidden(index)) {
+      return false;
+    }
+
+    // Things standing on a cell you can see hide what's under them
+    return map.isForgotten(index) || !WorldManager.mapHelpers.hasEntitiesAt(cellX, cellY);
+  }
+
+  void dispose() {
+    cache.dispose();
+  }
+
+  private void build(int chunk, int chunkX, int chunkY) {
+    chunksRebuilt += 1;
+
+    if (cacheIds[chunk] == -1) {
+      cache.beginCache();
+    } else {
+      cache.beginCache(cacheIds[chunk]);
+    }
+
+    int count = 0;
+    int startX = chunkX * Map.CHUNK_SIZE;
+    int startY = chunkY * Map.CHUNK_SIZE;
+    int endX = Math.min(startX + Map.CHUNK_SIZE, map.width);
+    int endY = Math.min(startY + Map.CHUNK_SIZE, map.height);
+
+    for (int x = startX; x < endX; x++) {
+      for (int y = startY; y < endY; y++) {
+        int index = map.indexOf(x, y);
+        MapTile tile = map.getTile(index);
+
+        if (tile.isAnimated() || !isDrawn(map, index, x, y)) {
+          continue;
+        }
+
+        Sprite sprite = tile.getSprite();
+        sprite.setColor(map.getColor(index));
+        sprite.setPosition(x * Main.SPRITE_WIDTH, y * Main.SPRITE_HEIGHT);
+
+        cache.add(sprite);
+        count += 1;
+      }
+    }
+
+    counts[chunk] = count;
+
+    // Pad it out so it always takes up the same room
+    for (int i = count; i < CHUNK_CELLS; i++) {
+      cache.add(blank, 0, 0, 0, 0);
+    }
+
+    cacheIds[chunk] = cache.endCache();
+  }
+}
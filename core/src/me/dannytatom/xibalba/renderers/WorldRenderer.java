@@ -2,15 +2,20 @@ package me.dannytatom.xibalba.renderers;
 
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Colors;
+import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
@@ -27,15 +32,25 @@ import me.dannytatom.xibalba.components.PositionComponent;
 import me.dannytatom.xibalba.components.TrapComponent;
 import me.dannytatom.xibalba.components.VisualComponent;
 import me.dannytatom.xibalba.utils.ComponentMappers;
-import me.dannytatom.xibalba.utils.GrayscaleShader;
+import me.dannytatom.xibalba.utils.CompositeShader;
 import me.dannytatom.xibalba.world.Map;
 import me.dannytatom.xibalba.world.MapCell;
+import me.dannytatom.xibalba.world.MapTile;
+import me.dannytatom.xibalba.world.MapWeather;
 import me.dannytatom.xibalba.world.WorldManager;
 
-import org.apache.commons.lang3.ArrayUtils;
-import org.xguzm.pathfinding.grid.GridCell;
-
 public class WorldRenderer {
+  private static final Family ENTRANCES = Family.all(EntranceComponent.class).get();
+  private static final Family EXITS = Family.all(ExitComponent.class).get();
+  private static final Family DECORATIONS = Family.all(DecorationComponent.class).get();
+  private static final Family TRAPS = Family.all(TrapComponent.class, VisualComponent.class).get();
+  private static final Family ITEMS = Family.all(ItemComponent.class, VisualComponent.class).get();
+  private static final Family ENEMIES = Family.all(EnemyComponent.class).get();
+  private static final Family PLAYERS = Family.all(PlayerComponent.class).get();
+
+  // Fully visible, no light, no wrath
+  private static final int UNTOUCHED = Color.rgba8888(1, 0, 0, 1);
+
   private final SpriteBatch batch;
   private final Viewport viewport;
   private final OrthographicCamera worldCamera;
@@ -48,6 +63,29 @@ public class WorldRenderer {
   // These get reused a ton
   private final Sprite shadow;
   private final Sprite question;
+  private final Color cellColor;
+  private final Array<Entity> onScreen;
+
+  // Everything that doesn't animate, cached in chunks
+  private final TileLayer tileLayer;
+
+  // For fading water back and forth
+  private float stateTime = 0;
+
+  // Drawn to before the composite, and what the composite reads per cell
+  private final Matrix4 screenMatrix;
+  private final Pixmap cellPixmap;
+  private final Pixmap lightPixmap;
+  private final Texture cellTexture;
+  private final Texture lightTexture;
+  private FrameBuffer frameBuffer;
+
+  // Which cells the camera can see this frame
+  private int minCellX;
+  private int minCellY;
+  private int maxCellX;
+  private int maxCellY;
+  private int lastVisionRevision = -1;
 
   /**
    * Setup world renderer.
@@ -68,6 +106,21 @@ public class WorldRenderer {
 
     shadow = Main.asciiAtlas.createSprite("1113");
     question = Main.asciiAtlas.createSprite("1503");
+    cellColor = new Color();
+    onScreen = new Array<>();
+
+    Map map = WorldManager.world.getCurrentMap();
+    tileLayer = new TileLayer(map);
+
+    screenMatrix = new Matrix4();
+    cellPixmap = new Pixmap(map.width, map.height, Pixmap.Format.RGBA8888);
+    cellPixmap.setBlending(Pixmap.Blending.None);
+    cellPixmap.setColor(UNTOUCHED);
+    cellPixmap.fill();
+    lightPixmap = new Pixmap(map.width, map.height, Pixmap.Format.RGBA8888);
+    lightPixmap.setBlending(Pixmap.Blending.None);
+    cellTexture = new Texture(cellPixmap);
+    lightTexture = new Texture(lightPixmap);
 
     BitmapFont font = new BitmapFont();
     font.getData().setScale(.25f);
@@ -86,120 +139,236 @@ public class WorldRenderer {
 
     worldCamera.update();
 
-    if (god.hasWrath) {
-      GrayscaleShader.shader.begin();
-      GrayscaleShader.shader.setUniformf("u_grayness", wrathFade);
-      batch.setShader(GrayscaleShader.shader);
-    } else {
-      GrayscaleShader.shader.end();
-      batch.setShader(null);
+    stateTime += delta;
+
+    updateVisibleCells();
+
+    // Only need to go over what the player sees if it's changed
+    if (playerAttributes.visionMap.getRevision() != lastVisionRevision) {
+      lastVisionRevision = playerAttributes.visionMap.getRevision();
+      WorldManager.world.getCurrentMap().reveal(playerAttributes.visionMap);
     }
 
+    int overlay = updateOverlay();
+
+    // Everything gets drawn to the frame buffer first, then put on screen by the composite shader.
+    // Clears to whatever PlayScreen cleared the screen to.
+    viewport.apply();
+    updateFrameBuffer();
+    frameBuffer.bind();
+    Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+    // In wrath mode forgotten cells aren't drawn, so cells get drawn one by one
+    if (!god.hasWrath) {
+      tileLayer.render(worldCamera, minCellX, minCellY, maxCellX, maxCellY);
+    }
+
+    batch.setShader(null);
     batch.setProjectionMatrix(worldCamera.combined);
     batch.begin();
 
-    renderCells(wrathFade);
-    renderStairs();
-    renderDecorations();
-    renderTraps();
-    renderItems();
-    renderEnemies();
-    renderPlayer();
-    renderShadows();
-    renderLights();
-    renderHighlights();
+    gatherVisibleEntities();
+
+    int cells = renderCells();
+    int stairs = renderStairs();
+    int decorations = renderDecorations();
+    int rain = renderWeather();
+    int traps = renderTraps();
+    int items = renderItems();
+    int enemies = renderEnemies();
+    int players = renderPlayer();
 
     batch.end();
+
+    FrameBuffer.unbind();
+    composite(wrathFade);
+
+    // Highlights go on top of the fog
+    batch.setProjectionMatrix(worldCamera.combined);
+    batch.begin();
+    int highlights = renderHighlights();
+    batch.end();
+
+    if (Main.debug.debugEnabled) {
+      int chunks = ((maxCellX / Map.CHUNK_SIZE) - (minCellX / Map.CHUNK_SIZE) + 1)
+          * ((maxCellY / Map.CHUNK_SIZE) - (minCellY / Map.CHUNK_SIZE) + 1);
+
+      Main.debug.gl.put("Visible Chunks", chunks + "");
+      Main.debug.gl.put("Cached Chunks", tileLayer.chunksDrawn + "");
+      Main.debug.gl.put("Rebuilt Chunks", tileLayer.chunksRebuilt + "");
+      Main.debug.gl.put("Cells", cells + "");
+      Main.debug.gl.put("Stairs", stairs + "");
+      Main.debug.gl.put("Decorations", decorations + "");
+      Main.debug.gl.put("Rain", rain + "");
+      Main.debug.gl.put("Traps", traps + "");
+      Main.debug.gl.put("Items", items + "");
+      Main.debug.gl.put("Enemies", enemies + "");
+      Main.debug.gl.put("Player", players + "");
+      Main.debug.gl.put("Overlay Cells", overlay + "");
+      Main.debug.gl.put("Highlights", highlights + "");
+    }
   }
 
-  private void renderCells(float wrathFade) {
+  // Work out which cells are on screen, with a little padding for camera shake
+  private void updateVisibleCells() {
     Map map = WorldManager.world.getCurrentMap();
 
-    for (int x = 0; x < map.width; x++) {
-      for (int y = 0; y < map.height; y++) {
-        MapCell cell = map.getCellMap()[x][y];
+    float halfWidth = worldCamera.viewportWidth * worldCamera.zoom / 2;
+    float halfHeight = worldCamera.viewportHeight * worldCamera.zoom / 2;
 
-        if (cell.hasBlood() && !cell.onFire) {
-          if (god.hasWrath) {
-            batch.setShader(null);
-          }
-        }
+    minCellX = Math.max((int) ((worldCamera.position.x - halfWidth) / Main.SPRITE_WIDTH) - 2, 0);
+    minCellY = Math.max((int) ((worldCamera.position.y - halfHeight) / Main.SPRITE_HEIGHT) - 2, 0);
+    maxCellX = Math.min(
+        (int) ((worldCamera.position.x + halfWidth) / Main.SPRITE_WIDTH) + 2, map.width - 1
+    );
+    maxCellY = Math.min(
+        (int) ((worldCamera.position.y + halfHeight) / Main.SPRITE_HEIGHT) + 2, map.height - 1
+    );
+  }
 
-        if (playerAttributes.visionMap[x][y] > 0) {
-          cell.hidden = false;
+  // Static cells come from the tile layer, so outside of wrath this is just animated ones
+  private int renderCells() {
+    Map map = WorldManager.world.getCurrentMap();
+    int drawn = 0;
 
-          if (cell.tween != null && !cell.tween.isStarted()) {
-            cell.tween.start(Main.tweenManager);
+    for (int x = minCellX; x <= maxCellX; x++) {
+      for (int y = minCellY; y <= maxCellY; y++) {
+        int index = map.indexOf(x, y);
+
+        if (!god.hasWrath) {
+          if (map.getTile(index).isAnimated() && TileLayer.isDrawn(map, index, x, y)) {
+            drawCell(map, index, x, y);
+            drawn += 1;
           }
-        }
 
-        if (!cell.hidden) {
-          cell.forgotten = playerAttributes.visionMap[x][y] <= 0;
+          continue;
+        }
 
-          if (cell.forgotten) {
-            if (!god.hasWrath) {
-              cell.sprite.draw(batch);
-            }
-          } else {
-            if (WorldManager.mapHelpers.getEntitiesAt(new Vector2(x, y)).size() == 0) {
-              cell.sprite.draw(batch);
-            }
-          }
+        if (!map.isForgotten(index) && TileLayer.isDrawn(map, index, x, y)) {
+          drawCell(map, index, x, y);
+          drawn += 1;
         }
+      }
+    }
+
+    return drawn;
+  }
+
+  // Every cell with the same tile shares one sprite, so it gets moved and colored for each draw
+  private void drawCell(Map map, int index, int cellX, int cellY) {
+    MapTile tile = map.getTile(index);
+    Sprite sprite = tile.getSprite();
+
+    if (tile.isAnimated()) {
+      // Fade to animateTo and back every second, each cell starting at a different point
+      float time = (stateTime + (index * 0.618034f) % 1) % 1;
+      float progress = time < .5f ? time * 2 : (1 - time) * 2;
+
+      sprite.setColor(cellColor.set(tile.color).lerp(tile.animateTo, progress));
+    } else {
+      sprite.setColor(map.getColor(index));
+    }
+
+    sprite.setPosition(cellX * Main.SPRITE_WIDTH, cellY * Main.SPRITE_HEIGHT);
+    sprite.draw(batch);
+  }
 
-        if (god.hasWrath) {
-          batch.setShader(GrayscaleShader.shader);
+  // Everything standing in a chunk that's on screen, then narrowed down to the cells on screen
+  private void gatherVisibleEntities() {
+    Map map = WorldManager.world.getCurrentMap();
+
+    onScreen.clear();
+
+    int maxChunkX = Math.min(maxCellX / Map.CHUNK_SIZE, map.chunksX - 1);
+    int maxChunkY = Math.min(maxCellY / Map.CHUNK_SIZE, map.chunksY - 1);
+
+    for (int chunkX = minCellX / Map.CHUNK_SIZE; chunkX <= maxChunkX; chunkX++) {
+      for (int chunkY = minCellY / Map.CHUNK_SIZE; chunkY <= maxChunkY; chunkY++) {
+        Array<Entity> entities = WorldManager.entityIndex.getChunk(chunkX, chunkY);
+
+        for (int i = 0; i < entities.size; i++) {
+          Entity entity = entities.get(i);
+          Vector2 position = ComponentMappers.position.get(entity).pos;
+
+          if (isOnScreen((int) position.x, (int) position.y)) {
+            onScreen.add(entity);
+          }
         }
       }
     }
   }
 
-  private void renderStairs() {
-    ImmutableArray<Entity> entrances =
-        WorldManager.engine.getEntitiesFor(Family.all(EntranceComponent.class).get());
-    ImmutableArray<Entity> exits =
-        WorldManager.engine.getEntitiesFor(Family.all(ExitComponent.class).get());
+  private boolean isOnScreen(int cellX, int cellY) {
+    return cellX >= minCellX && cellX <= maxCellX && cellY >= minCellY && cellY <= maxCellY;
+  }
 
-    Object[] entities = ArrayUtils.addAll(entrances.toArray(), exits.toArray());
+  private int renderStairs() {
+    int drawn = 0;
 
-    for (Object e : entities) {
-      Entity entity = (Entity) e;
+    for (int i = 0; i < onScreen.size; i++) {
+      Entity entity = onScreen.get(i);
 
-      if (WorldManager.entityHelpers.isVisible(entity)) {
+      if ((ENTRANCES.matches(entity) || EXITS.matches(entity))
+          && WorldManager.entityHelpers.isVisible(entity)) {
         ComponentMappers.visual.get(entity).sprite.draw(batch);
+        drawn += 1;
       }
     }
+
+    return drawn;
   }
 
-  private void renderDecorations() {
-    ImmutableArray<Entity> entities =
-        WorldManager.engine.getEntitiesFor(Family.all(DecorationComponent.class).get());
+  private int renderDecorations() {
+    int drawn = 0;
 
-    for (Entity entity : entities) {
-      if (WorldManager.entityHelpers.isVisible(entity)) {
+    for (int i = 0; i < onScreen.size; i++) {
+      Entity entity = onScreen.get(i);
+
+      if (DECORATIONS.matches(entity) && WorldManager.entityHelpers.isVisible(entity)) {
         ComponentMappers.visual.get(entity).sprite.draw(batch);
+        drawn += 1;
       }
     }
+
+    return drawn;
   }
 
-  private void renderTraps() {
-    ImmutableArray<Entity> entities =
-        WorldManager.engine.getEntitiesFor(Family.all(TrapComponent.class).get());
+  // Rain isn't made of entities, the weather draws all of it in one go
+  private int renderWeather() {
+    MapWeather weather = WorldManager.world.getCurrentMap().weather;
 
-    for (Entity entity : entities) {
-      if (ComponentMappers.visual.has(entity) && WorldManager.entityHelpers.isVisible(entity)) {
+    if (weather == null || !Main.debug.weatherEnabled) {
+      return 0;
+    }
+
+    return weather.render(batch, minCellX, minCellY, maxCellX, maxCellY);
+  }
+
+  private int renderTraps() {
+    int drawn = 0;
+
+    for (int i = 0; i < onScreen.size; i++) {
+      Entity entity = onScreen.get(i);
+
+      if (TRAPS.matches(entity) && WorldManager.entityHelpers.isVisible(entity)) {
         ComponentMappers.visual.get(entity).sprite.draw(batch);
+        drawn += 1;
       }
     }
+
+    return drawn;
   }
 
-  private void renderItems() {
-    ImmutableArray<Entity> entities =
-        WorldManager.engine.getEntitiesFor(
-            Family.all(ItemComponent.class, PositionComponent.class, VisualComponent.class).get()
-        );
+  private int renderItems() {
+    int drawn = 0;
+
+    for (int i = 0; i < onScreen.size; i++) {
+      Entity entity = onScreen.get(i);
+
+      if (!ITEMS.matches(entity)) {
+        continue;
+      }
 
-    for (Entity entity : entities) {
       PositionComponent position = ComponentMappers.position.get(entity);
 
       if (Main.tweenManager.getRunningTimelinesCount() == 0) {
@@ -208,15 +377,23 @@ public class WorldRenderer {
 
       if (WorldManager.entityHelpers.isVisible(entity)) {
         ComponentMappers.visual.get(entity).sprite.draw(batch);
+        drawn += 1;
       }
     }
+
+    return drawn;
   }
 
-  private void renderEnemies() {
-    ImmutableArray<Entity> entities =
-        WorldManager.engine.getEntitiesFor(Family.all(EnemyComponent.class).get());
+  private int renderEnemies() {
+    int drawn = 0;
+
+    for (int i = 0; i < onScreen.size; i++) {
+      Entity entity = onScreen.get(i);
+
+      if (!ENEMIES.matches(entity)) {
+        continue;
+      }
 
-    for (Entity entity : entities) {
       PositionComponent position = ComponentMappers.position.get(entity);
 
       if (Main.tweenManager.getRunningTimelinesCount() == 0) {
@@ -225,22 +402,29 @@ public class WorldRenderer {
 
       if (WorldManager.entityHelpers.isVisible(entity)) {
         ComponentMappers.visual.get(entity).sprite.draw(batch);
+        drawn += 1;
       } else if (WorldManager.entityHelpers.canHear(WorldManager.player, entity)) {
         question.setPosition(
             position.pos.x * Main.SPRITE_WIDTH, position.pos.y * Main.SPRITE_HEIGHT
         );
 
         question.draw(batch);
+        drawn += 1;
       }
     }
+
+    return drawn;
   }
 
-  private void renderPlayer() {
-    ImmutableArray<Entity> entities =
-        WorldManager.engine.getEntitiesFor(Family.all(PlayerComponent.class).get());
+  private int renderPlayer() {
+    int drawn = 0;
 
-    if (entities.size() > 0) {
-      Entity player = entities.first();
+    for (int i = 0; i < onScreen.size; i++) {
+      Entity player = onScreen.get(i);
+
+      if (!PLAYERS.matches(player)) {
+        continue;
+      }
 
       if (Main.tweenManager.getRunningTimelinesCount() == 0) {
         PositionComponent position = ComponentMappers.position.get(player);
@@ -248,100 +432,164 @@ public class WorldRenderer {
       }
 
       ComponentMappers.visual.get(player).sprite.draw(batch);
+      drawn += 1;
     }
+
+    return drawn;
   }
 
-  private void renderShadows() {
+  // Fog, light & how gray wrath makes it, one texel per cell on screen, for the composite shader
+  private int updateOverlay() {
     Map map = WorldManager.world.getCurrentMap();
+    boolean hasLights = map.light.hasLights();
+    boolean perceptive = WorldManager.entityHelpers.hasTrait(WorldManager.player, "Perceptive");
+    int drawn = 0;
 
-    for (int x = 0; x < map.width; x++) {
-      for (int y = 0; y < map.height; y++) {
-        MapCell cell = WorldManager.mapHelpers.getCell(x, y);
+    for (int x = minCellX; x <= maxCellX; x++) {
+      for (int y = minCellY; y <= maxCellY; y++) {
+        int index = map.indexOf(x, y);
 
-        if (cell.hidden) {
+        // Nothing gets drawn here, so leave the background alone
+        if (map.isHidden(index)) {
+          cellPixmap.drawPixel(x, y, UNTOUCHED);
           continue;
         }
 
-        if (god.hasWrath && cell.forgotten) {
-          continue;
-        }
+        float visibility;
 
-        Entity enemy = WorldManager.mapHelpers.getEnemyAt(x, y);
+        if (god.hasWrath && map.isForgotten(index)) {
+          visibility = 1;
+        } else if (perceptive && canHearEnemyAt(x, y)) {
+          visibility = 1;
+        } else {
+          visibility = playerAttributes.visionMap.get(x, y);
 
-        boolean canHearEnemy = WorldManager.entityHelpers.hasTrait(
-            WorldManager.player, "Perceptive"
-        ) && enemy != null && WorldManager.entityHelpers.canHear(WorldManager.player, enemy);
+          if (hasLights && visibility > 0) {
+            float lit = map.light.getLight(x, y);
 
-        if (canHearEnemy) {
-          continue;
+            if (visibility + lit > 1) {
+              visibility = 0.9f;
+            } else {
+              visibility += lit;
+            }
+          }
+
+          visibility = visibility <= .15f ? .15f : visibility;
         }
 
-        float alpha = playerAttributes.visionMap[x][y];
+        float light = 0;
+
+        if (hasLights && !map.isForgotten(index)) {
+          light = map.light.getLight(x, y);
 
-        if (map.light.hasLights() && alpha > 0) {
-          if (alpha + map.light.lightMap[x][y] > 1) {
-            alpha = 0.9f;
-          } else {
-            alpha += map.light.lightMap[x][y];
+          if (light + light > 1) {
+            light = 0.9f;
           }
+
+          light /= 10;
+          lightPixmap.drawPixel(x, y, map.light.getColor(x, y));
         }
 
-        alpha = alpha <= .15f ? .15f : alpha;
+        // Blood stays red while everything else goes gray
+        float grayness =
+            map.getCovered(index) == MapCell.Covered.BLOOD && !map.isOnFire(index) ? 0 : 1;
 
-        if (god.hasWrath) {
-          shadow.setColor(Color.BLACK);
-        } else {
-          shadow.setColor(Colors.get(WorldManager.world.getCurrentMap().type + "Background"));
-        }
+        cellPixmap.drawPixel(x, y, Color.rgba8888(visibility, light, grayness, 1));
+        drawn += 1;
+      }
+    }
 
-        shadow.setAlpha(-alpha);
-        shadow.setPosition(x * Main.SPRITE_WIDTH, y * Main.SPRITE_HEIGHT);
+    return drawn;
+  }
 
-        shadow.draw(batch);
+  private boolean canHearEnemyAt(int cellX, int cellY) {
+    Entity enemy = WorldManager.mapHelpers.getEnemyAt(cellX, cellY);
+
+    return enemy != null && WorldManager.entityHelpers.canHear(WorldManager.player, enemy);
+  }
+
+  // The frame buffer matches the screen, so it needs remaking if the window changes size
+  private void updateFrameBuffer() {
+    int width = Gdx.graphics.getBackBufferWidth();
+    int height = Gdx.graphics.getBackBufferHeight();
+
+    if (frameBuffer == null
+        || frameBuffer.getWidth() != width || frameBuffer.getHeight() != height) {
+      if (frameBuffer != null) {
+        frameBuffer.dispose();
       }
+
+      frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+      frameBuffer.getColorBufferTexture().setFilter(
+          Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest
+      );
     }
   }
 
-  private void renderLights() {
+  // Draw the world from the frame buffer with fog, light & wrath all done in one go
+  private void composite(float wrathFade) {
     Map map = WorldManager.world.getCurrentMap();
+    Texture scene = frameBuffer.getColorBufferTexture();
 
-    if (map.light.hasLights()) {
-      for (int x = 0; x < map.width; x++) {
-        for (int y = 0; y < map.height; y++) {
-          MapCell cell = WorldManager.mapHelpers.getCell(x, y);
+    cellTexture.draw(cellPixmap, 0, 0);
+    lightTexture.draw(lightPixmap, 0, 0);
+    cellTexture.bind(1);
+    lightTexture.bind(2);
+    Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0);
 
-          if (cell.hidden || cell.forgotten) {
-            continue;
-          }
+    Color shadowColor = god.hasWrath ? Color.BLACK : Colors.get(map.type + "Background");
 
-          float alpha = map.light.lightMap[x][y];
+    batch.setShader(CompositeShader.shader);
+    batch.setProjectionMatrix(screenMatrix);
+    batch.disableBlending();
+    batch.begin();
 
-          if (alpha + map.light.lightMap[x][y] > 1) {
-            alpha = 0.9f;
-          }
+    CompositeShader.shader.setUniformi("u_cells", 1);
+    CompositeShader.shader.setUniformi("u_lights", 2);
+    CompositeShader.shader.setUniformMatrix("u_screenToWorld", worldCamera.invProjectionView);
+    CompositeShader.shader.setUniformf(
+        "u_mapSize", map.width * Main.SPRITE_WIDTH, map.height * Main.SPRITE_HEIGHT
+    );
+    CompositeShader.shader.setUniformf(
+        "u_shadowColor", shadowColor.r, shadowColor.g, shadowColor.b
+    );
+    CompositeShader.shader.setUniformf("u_grayness", god.hasWrath ? wrathFade : 0);
 
-          shadow.setColor(map.light.colorMap[x][y]);
-          shadow.setAlpha(alpha / 10);
-          shadow.setPosition(x * Main.SPRITE_WIDTH, y * Main.SPRITE_HEIGHT);
+    // Only the part of the frame buffer the viewport drew to
+    float u = viewport.getScreenX() / (float) scene.getWidth();
+    float v = viewport.getScreenY() / (float) scene.getHeight();
+    float u2 = (viewport.getScreenX() + viewport.getScreenWidth()) / (float) scene.getWidth();
+    float v2 = (viewport.getScreenY() + viewport.getScreenHeight()) / (float) scene.getHeight();
 
-          shadow.draw(batch);
-        }
-      }
-    }
+    batch.draw(scene, -1, -1, 2, 2, u, v, u2, v2);
+    batch.end();
+
+    batch.enableBlending();
+    batch.setShader(null);
   }
 
-  private void renderHighlights() {
-    if (playerDetails.path != null && playerDetails.target != null) {
+  private int renderHighlights() {
+    int drawn = 0;
+
+    if (playerDetails.target != null) {
       for (int i = 0; i < playerDetails.path.size(); i++) {
-        GridCell cell = playerDetails.path.get(i);
+        int cellX = playerDetails.path.getX(i);
+        int cellY = playerDetails.path.getY(i);
+
+        if (!isOnScreen(cellX, cellY)) {
+          continue;
+        }
 
         shadow.setColor(Color.WHITE);
         shadow.setAlpha(.15f);
-        shadow.setPosition(cell.x * Main.SPRITE_WIDTH, cell.y * Main.SPRITE_HEIGHT);
+        shadow.setPosition(cellX * Main.SPRITE_WIDTH, cellY * Main.SPRITE_HEIGHT);
 
         shadow.draw(batch);
+        drawn += 1;
       }
     }
+
+    return drawn;
   }
 
   /**
@@ -359,4 +607,16 @@ public class WorldRenderer {
         0
     );
   }
+
+  public void dispose() {
+    tileLayer.dispose();
+    cellPixmap.dispose();
+    lightPixmap.dispose();
+    cellTexture.dispose();
+    lightTexture.dispose();
+
+    if (frameBuffer != null) {
+      frameBuffer.dispose();
+    }
+  }
 }
@@ -38,8 +38,6 @@ import me.dannytatom.xibalba.utils.yaml.TraitData;
 import me.dannytatom.xibalba.world.WorldManager;
 
 import org.apache.commons.lang3.text.WordUtils;
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.Constructor;
 
 public class CharacterScreen implements Screen {
   private final Main main;
@@ -95,17 +93,8 @@ public class CharacterScreen implements Screen {
     inventory = ComponentMappers.inventory.get(player);
     equipment = ComponentMappers.equipment.get(player);
 
-    traits = new ArrayList<>();
-    Yaml traitYaml = new Yaml(new Constructor(TraitData.class));
-    for (Map.Entry<String, String> entry : Main.traitsData.entrySet()) {
-      traits.add((TraitData) traitYaml.load(entry.getValue()));
-    }
-
-    defects = new ArrayList<>();
-    Yaml defectYaml = new Yaml(new Constructor(DefectData.class));
-    for (Map.Entry<String, String> entry : Main.defectsData.entrySet()) {
-      defects.add((DefectData) defectYaml.load(entry.getValue()));
-    }
+    traits = new ArrayList<>(Main.templates.traits.values());
+    defects = new ArrayList<>(Main.templates.defects.values());
 
     table = new Table();
     table.setFillParent(true);
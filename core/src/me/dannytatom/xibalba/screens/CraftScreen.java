@@ -22,23 +22,13 @@ import java.util.Map;
 import me.dannytatom.xibalba.Main;
 import me.dannytatom.xibalba.components.EffectsComponent;
 import me.dannytatom.xibalba.components.ItemComponent;
-import me.dannytatom.xibalba.effects.Bleed;
-import me.dannytatom.xibalba.effects.Charm;
-import me.dannytatom.xibalba.effects.DealDamage;
 import me.dannytatom.xibalba.effects.Effect;
-import me.dannytatom.xibalba.effects.Poison;
-import me.dannytatom.xibalba.effects.RaiseHealth;
-import me.dannytatom.xibalba.effects.StartFire;
 import me.dannytatom.xibalba.ui.ActionButton;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.utils.yaml.ItemData;
-import me.dannytatom.xibalba.utils.yaml.ItemRequiredComponentData;
 import me.dannytatom.xibalba.world.WorldManager;
 
 import org.apache.commons.lang3.text.WordUtils;
-import org.yaml.snakeyaml.TypeDescription;
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.Constructor;
 
 public class CraftScreen implements Screen {
   private final Stage stage;
@@ -54,24 +44,11 @@ public class CraftScreen implements Screen {
   public CraftScreen(Main main) {
     stage = new Stage(new FitViewport(960, 540));
 
-    Constructor constructor = new Constructor(ItemData.class);
-    constructor.addTypeDescription(new TypeDescription(Bleed.class, "!Bleed"));
-    constructor.addTypeDescription(new TypeDescription(Charm.class, "!Charm"));
-    constructor.addTypeDescription(new TypeDescription(DealDamage.class, "!DealDamage"));
-    constructor.addTypeDescription(new TypeDescription(Poison.class, "!Poison"));
-    constructor.addTypeDescription(new TypeDescription(RaiseHealth.class, "!RaiseHealth"));
-    constructor.addTypeDescription(new TypeDescription(StartFire.class, "!StartFire"));
-    TypeDescription itemDescription = new TypeDescription(ItemData.class);
-    itemDescription.putListPropertyType("requiredComponent", ItemRequiredComponentData.class);
-    constructor.addTypeDescription(itemDescription);
-    Yaml yaml = new Yaml(constructor);
     recipes = new HashMap<>();
 
-    for (Map.Entry<String, String> entry : Main.itemsData.entrySet()) {
-      ItemData data = (ItemData) yaml.load(entry.getValue());
-
-      if (data.requiredComponents != null) {
-        recipes.put(entry.getKey(), data);
+    for (Map.Entry<String, ItemData> entry : Main.templates.items.entrySet()) {
+      if (entry.getValue().requiredComponents != null) {
+        recipes.put(entry.getKey(), entry.getValue());
       }
     }
 
@@ -18,7 +18,9 @@ import java.util.HashMap;
 import java.util.Map;
 
 import me.dannytatom.xibalba.Main;
+import me.dannytatom.xibalba.utils.DataPack;
 import me.dannytatom.xibalba.utils.SoundManager;
+import me.dannytatom.xibalba.utils.TemplateRegistry;
 
 import org.yaml.snakeyaml.Yaml;
 
@@ -70,7 +72,34 @@ public class LoadingScreen implements Screen {
   }
 
   private void loadAssets() {
-    // Data
+    // Data, from the pack if this is a packaged build, otherwise straight from the YAML
+    FileHandle pack = Gdx.files.internal("data/data.pack");
+
+    if (pack.exists()) {
+      label.setText("Loading data pack");
+    }
+
+    if (!pack.exists() || !DataPack.read(pack.readBytes())) {
+      loadData();
+    }
+
+    label.setText("Loading assets");
+
+    Main.assets.load("i18n/xibalba", I18NBundle.class);
+    Main.assets.load("sprites/qbicfeet_10x10.atlas", TextureAtlas.class);
+    Main.assets.load("sounds/Stab_Punch_Hack_12.wav", Sound.class);
+    Main.assets.load("sounds/Stab_Punch_Hack_13.wav", Sound.class);
+    Main.assets.load("sounds/Stab_Punch_Hack_14.wav", Sound.class);
+    Main.assets.load("sounds/Stab_Punch_Hack_15.wav", Sound.class);
+    Main.assets.load("sounds/Stab_Punch_Hack_17.wav", Sound.class);
+    Main.assets.load("sounds/Stab_Punch_Hack_22.wav", Sound.class);
+    Main.assets.load("sounds/Stab_Punch_Hack_09.wav", Sound.class);
+    Main.assets.load("sounds/Stab_Punch_Hack_18.wav", Sound.class);
+    Main.assets.load("sounds/Stab_Punch_Hack_19.wav", Sound.class);
+    Main.assets.load("sounds/Stab_Punch_Hack_63.wav", Sound.class);
+  }
+
+  private void loadData() {
     label.setText("Loading data");
     Yaml dataManifestYaml = new Yaml();
     FileHandle dataManifest = Gdx.files.internal("data/manifest.yaml");
@@ -150,20 +179,10 @@ public class LoadingScreen implements Screen {
       }
     }
 
-    label.setText("Loading assets");
+    label.setText("Parsing data");
 
-    Main.assets.load("i18n/xibalba", I18NBundle.class);
-    Main.assets.load("sprites/qbicfeet_10x10.atlas", TextureAtlas.class);
-    Main.assets.load("sounds/Stab_Punch_Hack_12.wav", Sound.class);
-    Main.assets.load("sounds/Stab_Punch_Hack_13.wav", Sound.class);
-    Main.assets.load("sounds/Stab_Punch_Hack_14.wav", Sound.class);
-    Main.assets.load("sounds/Stab_Punch_Hack_15.wav", Sound.class);
-    Main.assets.load("sounds/Stab_Punch_Hack_17.wav", Sound.class);
-    Main.assets.load("sounds/Stab_Punch_Hack_22.wav", Sound.class);
-    Main.assets.load("sounds/Stab_Punch_Hack_09.wav", Sound.class);
-    Main.assets.load("sounds/Stab_Punch_Hack_18.wav", Sound.class);
-    Main.assets.load("sounds/Stab_Punch_Hack_19.wav", Sound.class);
-    Main.assets.load("sounds/Stab_Punch_Hack_63.wav", Sound.class);
+    Main.templates = new TemplateRegistry();
+    Main.templates.load();
   }
 
   @Override
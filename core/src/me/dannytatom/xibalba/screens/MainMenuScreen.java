@@ -13,6 +13,7 @@ import com.badlogic.gdx.utils.viewport.FitViewport;
 import me.dannytatom.xibalba.Main;
 import me.dannytatom.xibalba.screens.creation.YouScreen;
 import me.dannytatom.xibalba.ui.ActionButton;
+import me.dannytatom.xibalba.world.SaveGame;
 
 public class MainMenuScreen implements Screen {
   private final Stage stage;
@@ -33,6 +34,15 @@ public class MainMenuScreen implements Screen {
     newGameButton.setKeys(Input.Keys.N);
     newGameButton.setAction(table, () -> main.setScreen(new YouScreen(main)));
 
+    ActionButton continueButton = new ActionButton("C", "Continue");
+    continueButton.setKeys(Input.Keys.C);
+    continueButton.setAction(table, () -> {
+      if (SaveGame.load(main)) {
+        Main.playScreen = new PlayScreen(main);
+        main.setScreen(Main.playScreen);
+      }
+    });
+
     ActionButton quitButton = new ActionButton("Q", "Quit");
     quitButton.setKeys(Input.Keys.Q);
     quitButton.setAction(table, () -> Gdx.app.exit());
@@ -40,6 +50,11 @@ public class MainMenuScreen implements Screen {
     table.add(new Label("[LIGHT_GRAY]Xibalba v0.1.0[]", Main.skin)).pad(0, 0, 10, 0);
     table.row();
 
+    if (SaveGame.exists()) {
+      table.add(continueButton).pad(0, 0, 10, 0);
+      table.row();
+    }
+
     table.add(newGameButton).pad(0, 0, 10, 0);
     table.row();
     table.add(quitButton);
@@ -12,6 +12,7 @@ import com.badlogic.gdx.utils.viewport.FitViewport;
 
 import me.dannytatom.xibalba.Main;
 import me.dannytatom.xibalba.ui.ActionButton;
+import me.dannytatom.xibalba.world.SaveGame;
 
 public class PauseScreen implements Screen {
   private final Stage stage;
@@ -32,6 +33,13 @@ public class PauseScreen implements Screen {
     returnToGameButton.setKeys(Input.Keys.ESCAPE);
     returnToGameButton.setAction(table, () -> main.setScreen(Main.playScreen));
 
+    ActionButton saveButton = new ActionButton("S", "Save");
+    saveButton.setKeys(Input.Keys.S);
+    saveButton.setAction(table, () -> {
+      SaveGame.save();
+      main.setScreen(Main.playScreen);
+    });
+
     ActionButton mainMenuButton = new ActionButton("M", "Main Menu");
     mainMenuButton.setKeys(Input.Keys.M);
     mainMenuButton.setAction(table, () -> {
@@ -47,6 +55,8 @@ public class PauseScreen implements Screen {
     table.row();
     table.add(returnToGameButton).pad(0, 0, 10, 0);
     table.row();
+    table.add(saveButton).pad(0, 0, 10, 0);
+    table.row();
     table.add(mainMenuButton).pad(0, 0, 10, 0);
     table.row();
     table.add(quitButton);
@@ -135,9 +135,7 @@ public class PlayScreen implements Screen {
         }
 
         // FIRE!!!
-        WorldManager.world.getCurrentMap().fires.forEach(
-            fire -> fire.update(delta, WorldManager.executeTurn)
-        );
+        WorldManager.world.getCurrentMap().fire.update(delta, WorldManager.executeTurn);
 
         // Keep moving if a key is held down
         if (playerInput.keyHeld != -1) {
@@ -257,6 +255,7 @@ public class PlayScreen implements Screen {
   @Override
   public void dispose() {
     batch.dispose();
+    worldRenderer.dispose();
     glProfiler.disable();
   }
 }
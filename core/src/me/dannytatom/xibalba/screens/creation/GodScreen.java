@@ -13,7 +13,6 @@ import com.badlogic.gdx.scenes.scene2d.ui.VerticalGroup;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 
 import java.util.ArrayList;
-import java.util.Map;
 
 import me.dannytatom.xibalba.Main;
 import me.dannytatom.xibalba.abilities.Ability;
@@ -53,13 +52,7 @@ class GodScreen implements Screen {
     table.pad(10);
     stage.addActor(table);
 
-    Yaml yaml = new Yaml(new Constructor(GodData.class));
-    godDataList = new ArrayList<>();
-
-    for (Map.Entry<String, String> entry : Main.godsData.entrySet()) {
-      GodData data = (GodData) yaml.load(entry.getValue());
-      godDataList.add(data);
-    }
+    godDataList = new ArrayList<>(Main.templates.gods.values());
 
     Table titleTable = new Table();
 
@@ -23,8 +23,6 @@ import me.dannytatom.xibalba.utils.yaml.DefectData;
 import me.dannytatom.xibalba.utils.yaml.TraitData;
 
 import org.apache.commons.lang3.text.WordUtils;
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.Constructor;
 
 public class YouScreen implements Screen {
   private final Stage stage;
@@ -53,17 +51,8 @@ public class YouScreen implements Screen {
     stage = new Stage(new FitViewport(960, 540));
     playerSetup = new PlayerSetup();
 
-    traits = new ArrayList<>();
-    Yaml traitYaml = new Yaml(new Constructor(TraitData.class));
-    for (Map.Entry<String, String> entry : Main.traitsData.entrySet()) {
-      traits.add((TraitData) traitYaml.load(entry.getValue()));
-    }
-
-    defects = new ArrayList<>();
-    Yaml defectYaml = new Yaml(new Constructor(DefectData.class));
-    for (Map.Entry<String, String> entry : Main.defectsData.entrySet()) {
-      defects.add((DefectData) defectYaml.load(entry.getValue()));
-    }
+    traits = new ArrayList<>(Main.templates.traits.values());
+    defects = new ArrayList<>(Main.templates.defects.values());
 
     Table table = new Table();
     table.setFillParent(true);
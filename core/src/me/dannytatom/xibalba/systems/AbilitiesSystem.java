@@ -12,7 +12,7 @@ import me.dannytatom.xibalba.utils.ComponentMappers;
 
 public class AbilitiesSystem extends UsesEnergySystem {
   public AbilitiesSystem() {
-    super(Family.all(AbilitiesComponent.class).get());
+    super(Family.all(AbilitiesComponent.class).get(), true);
   }
 
   @Override
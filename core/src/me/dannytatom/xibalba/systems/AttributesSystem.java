@@ -14,8 +14,8 @@ public class AttributesSystem extends UsesEnergySystem {
   @Override
   protected void processEntity(Entity entity, float deltaTime) {
     AttributesComponent attributes = ComponentMappers.attributes.get(entity);
-    attributes.energy += attributes.speed;
 
+    // Energy's topped up by the TurnScheduler
     if (ComponentMappers.player.has(entity)) {
       // Decrease divineFavor over time.
       if (attributes.divineFavor > 0) {
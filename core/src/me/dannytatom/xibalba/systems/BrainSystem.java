@@ -2,7 +2,6 @@ package me.dannytatom.xibalba.systems;
 
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.gdx.math.Vector2;
 
 import me.dannytatom.xibalba.components.AttributesComponent;
 import me.dannytatom.xibalba.components.BrainComponent;
@@ -26,14 +25,12 @@ public class BrainSystem extends UsesEnergySystem {
       brain.fear = 0;
     }
 
-    if (brain.path != null && brain.path.size > 0) {
+    if (!brain.path.isEmpty()) {
       AttributesComponent attributes = ComponentMappers.attributes.get(entity);
 
       if (attributes.energy >= MovementComponent.COST) {
-        Vector2 cell = brain.path.get(0);
-
-        entity.add(new MovementComponent(cell));
-        brain.path.removeIndex(0);
+        entity.add(brain.step.set(brain.path.getX(0), brain.path.getY(0)));
+        brain.path.advance();
       }
     }
   }
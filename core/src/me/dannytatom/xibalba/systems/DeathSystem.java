@@ -1,29 +1,56 @@
 package me.dannytatom.xibalba.systems;
 
 import com.badlogic.ashley.core.Entity;
-import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.utils.ObjectSet;
 
 import me.dannytatom.xibalba.components.AttributesComponent;
 import me.dannytatom.xibalba.components.PositionComponent;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.world.WorldManager;
 
-public class DeathSystem extends UsesEnergySystem {
+public class DeathSystem extends EntitySystem {
+  private final ObjectSet<Entity> hurt;
+
+  /**
+   * Turns anyone who ran out of health into a corpse at the end of the turn. Only looks at who
+   * got hurt, whether or not it was their turn.
+   */
   public DeathSystem() {
-    super(Family.all(AttributesComponent.class).get());
+    this.hurt = new ObjectSet<>();
+  }
+
+  /**
+   * Entity took damage, check on them at the end of the turn.
+   *
+   * @param entity Who got hurt
+   */
+  public void hurt(Entity entity) {
+    hurt.add(entity);
   }
 
   @Override
-  protected void processEntity(Entity entity, float deltaTime) {
-    AttributesComponent attributes = ComponentMappers.attributes.get(entity);
+  public void update(float deltaTime) {
+    TurnScheduler scheduler = getEngine().getSystem(TurnScheduler.class);
 
-    if (attributes.health <= 0) {
-      PositionComponent position = ComponentMappers.position.get(entity);
+    for (Entity entity : hurt) {
+      AttributesComponent attributes = ComponentMappers.attributes.get(entity);
 
-      Entity corpse = WorldManager.entityFactory.createCorpse(entity, position.pos);
+      // Might've been removed already
+      if (attributes == null || !scheduler.isScheduled(entity)) {
+        continue;
+      }
 
-      WorldManager.world.addEntity(corpse);
-      WorldManager.world.removeEntity(entity);
+      if (attributes.health <= 0) {
+        PositionComponent position = ComponentMappers.position.get(entity);
+
+        Entity corpse = WorldManager.entityFactory.createCorpse(entity, position.pos);
+
+        WorldManager.world.addEntity(corpse);
+        WorldManager.world.removeEntity(entity);
+      }
     }
+
+    hurt.clear();
   }
 }
@@ -5,10 +5,6 @@ import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.utils.ImmutableArray;
-import com.badlogic.gdx.math.Vector2;
-
-import java.util.ArrayList;
-import java.util.List;
 
 import me.dannytatom.xibalba.components.AttributesComponent;
 import me.dannytatom.xibalba.components.MouseMovementComponent;
@@ -17,8 +13,6 @@ import me.dannytatom.xibalba.components.actions.MovementComponent;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.world.WorldManager;
 
-import org.xguzm.pathfinding.grid.GridCell;
-
 public class MouseMovementSystem extends EntitySystem {
   private ImmutableArray<Entity> entities;
 
@@ -48,7 +42,7 @@ public class MouseMovementSystem extends EntitySystem {
       AttributesComponent attributes = ComponentMappers.attributes.get(WorldManager.player);
 
       // Remove mouse movement component once path is empty
-      if (playerDetails.path == null || playerDetails.path.isEmpty()) {
+      if (playerDetails.path.isEmpty()) {
         attributes.energy -= MovementComponent.COST;
 
         entity.remove(MouseMovementComponent.class);
@@ -56,14 +50,11 @@ public class MouseMovementSystem extends EntitySystem {
       } else {
         if (attributes.energy >= MovementComponent.COST) {
           // Start walking
-          GridCell cell = playerDetails.path.get(0);
-
-          entity.add(new MovementComponent(new Vector2(cell.getX(), cell.getY())));
-
-          List<GridCell> newPath = new ArrayList<>(playerDetails.path);
-          newPath.remove(cell);
+          entity.add(playerDetails.step.set(
+              playerDetails.path.getX(0), playerDetails.path.getY(0)
+          ));
 
-          playerDetails.path = newPath;
+          playerDetails.path.advance();
         }
       }
     }
@@ -0,0 +1,110 @@
+package me.dannytatom.xibalba.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectSet;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import me.dannytatom.xibalba.utils.ComponentMappers;
+import me.dannytatom.xibalba.world.ShadowCaster;
+import me.dannytatom.xibalba.world.WorldManager;
+
+public class SensesSystem extends EntitySystem {
+  // Below this it's not worth splitting the work up any further
+  private static final int BATCH_SIZE = 4;
+
+  private static final ForkJoinPool pool = new ForkJoinPool();
+
+  // ShadowCaster keeps state while it's casting, so every thread needs its own
+  private static final ThreadLocal<ShadowCaster> casters
+      = ThreadLocal.withInitial(ShadowCaster::new);
+
+  private final ObjectSet<Entity> queued;
+  private final Array<Entity> batch;
+
+  /**
+   * Recalculates vision & hearing for everyone who moved this turn, all at once and spread across
+   * however many cores we've got. Runs after movement, so everything's up to date before brains
+   * think about it next turn.
+   */
+  public SensesSystem() {
+    this.queued = new ObjectSet<>();
+    this.batch = new Array<>();
+  }
+
+  /**
+   * Entity moved, so their senses need updating.
+   *
+   * @param entity Who moved
+   */
+  public void moved(Entity entity) {
+    queued.add(entity);
+  }
+
+  @Override
+  public void update(float deltaTime) {
+    flush();
+  }
+
+  /**
+   * Update senses for everyone queued up, returns once they're all done.
+   */
+  public void flush() {
+    if (queued.size == 0) {
+      return;
+    }
+
+    batch.clear();
+
+    for (Entity entity : queued) {
+      // Might've died or been picked up since they moved
+      if (ComponentMappers.attributes.has(entity) && ComponentMappers.position.has(entity)) {
+        batch.add(entity);
+      }
+    }
+
+    queued.clear();
+
+    if (batch.size <= BATCH_SIZE) {
+      for (int i = 0; i < batch.size; i++) {
+        WorldManager.entityHelpers.updateSenses(batch.get(i));
+      }
+    } else {
+      pool.invoke(new SensesTask(batch, 0, batch.size));
+    }
+  }
+
+  private static class SensesTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final Array<Entity> entities;
+    private final int start;
+    private final int end;
+
+    SensesTask(Array<Entity> entities, int start, int end) {
+      this.entities = entities;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= BATCH_SIZE) {
+        ShadowCaster caster = casters.get();
+
+        for (int i = start; i < end; i++) {
+          WorldManager.entityHelpers.updateSenses(entities.get(i), caster);
+        }
+      } else {
+        int middle = (start + end) / 2;
+
+        invokeAll(
+            new SensesTask(entities, start, middle), new SensesTask(entities, middle, end)
+        );
+      }
+    }
+  }
+}
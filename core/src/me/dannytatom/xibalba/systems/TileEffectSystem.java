@@ -14,7 +14,7 @@ import me.dannytatom.xibalba.world.WorldManager;
 
 public class TileEffectSystem extends UsesEnergySystem {
   public TileEffectSystem() {
-    super(Family.all(PositionComponent.class, AttributesComponent.class).get());
+    super(Family.all(PositionComponent.class, AttributesComponent.class).get(), true);
   }
 
   @Override
@@ -38,7 +38,7 @@ public class TileEffectSystem extends UsesEnergySystem {
       }
     }
 
-    if (WorldManager.mapHelpers.getCell(position.pos.x, position.pos.y).onFire) {
+    if (WorldManager.mapHelpers.getCell(position.pos.x, position.pos.y).isOnFire()) {
       entity.add(new BurningComponent(5));
     }
 
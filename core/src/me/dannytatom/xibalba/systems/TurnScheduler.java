@@ -0,0 +1,259 @@
+package me.dannytatom.xibalba.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BinaryHeap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import me.dannytatom.xibalba.Main;
+import me.dannytatom.xibalba.brain.Brain;
+import me.dannytatom.xibalba.components.AttributesComponent;
+import me.dannytatom.xibalba.components.BrainComponent;
+import me.dannytatom.xibalba.components.actions.MovementComponent;
+import me.dannytatom.xibalba.utils.ComponentMappers;
+import me.dannytatom.xibalba.world.Map;
+import me.dannytatom.xibalba.world.WorldManager;
+
+public class TurnScheduler extends EntitySystem implements EntityListener {
+  private static final Family ACTORS = Family.all(AttributesComponent.class).get();
+
+  // Every action costs the same
+  private static final int ACTION_COST = MovementComponent.COST;
+
+  // How often actors far from the player, or asleep where the player can't notice them, get a
+  // turn. Whatever they missed is caught up all at once when they do
+  private static final int DORMANT_INTERVAL = 8;
+
+  private final BinaryHeap<Actor> timeline;
+  private final ObjectMap<Entity, Actor> scheduled;
+  private final Array<Entity> acting;
+  private int turn = 0;
+
+  /**
+   * Decides who gets a turn. Everyone's on one timeline keyed by the turn they'll next have enough
+   * energy to act, so each turn only the actors whose time has come get pulled off the front and
+   * every other system only goes over them.
+   *
+   * <p>Energy is only topped up when an actor's pulled off, by however many turns they sat out.
+   * The player gets pulled every turn, since input needs their energy up to date.
+   *
+   * <p>Actors outside the simulation radius, or sleeping without the player seeing or being heard
+   * by them, go dormant and only come up every few turns. Once the player gets near enough
+   * they're brought back to the front.
+   */
+  public TurnScheduler() {
+    this.timeline = new BinaryHeap<>();
+    this.scheduled = new ObjectMap<>();
+    this.acting = new Array<>();
+  }
+
+  @Override
+  public void addedToEngine(Engine engine) {
+    engine.addEntityListener(ACTORS, this);
+
+    for (Entity entity : engine.getEntitiesFor(ACTORS)) {
+      entityAdded(entity);
+    }
+  }
+
+  @Override
+  public void removedFromEngine(Engine engine) {
+    engine.removeEntityListener(this);
+  }
+
+  @Override
+  public void entityAdded(Entity entity) {
+    Actor actor = new Actor(entity);
+    actor.lastTurn = turn;
+
+    scheduled.put(entity, actor);
+    timeline.add(actor, turn + 1);
+    actor.queued = true;
+  }
+
+  @Override
+  public void entityRemoved(Entity entity) {
+    Actor actor = scheduled.remove(entity);
+
+    if (actor != null && actor.queued) {
+      timeline.remove(actor);
+    }
+  }
+
+  @Override
+  public void update(float deltaTime) {
+    // Whoever went last turn goes back on the timeline, now we know how much energy they spent
+    for (int i = 0; i < acting.size; i++) {
+      Actor actor = scheduled.get(acting.get(i));
+
+      if (actor != null) {
+        timeline.add(actor, nextTurn(actor));
+        actor.queued = true;
+      }
+    }
+
+    acting.clear();
+    turn += 1;
+
+    promoteNearPlayer();
+
+    while (timeline.size > 0 && timeline.peek().getValue() <= turn) {
+      Actor actor = timeline.pop();
+      AttributesComponent attributes = ComponentMappers.attributes.get(actor.entity);
+
+      actor.queued = false;
+      actor.elapsed = turn - actor.lastTurn;
+      actor.lastTurn = turn;
+      attributes.energy += attributes.speed * actor.elapsed;
+
+      acting.add(actor.entity);
+    }
+
+    // Most energy goes first, same as when every system sorted on its own
+    acting.sort((first, second) -> Integer.compare(
+        ComponentMappers.attributes.get(second).energy,
+        ComponentMappers.attributes.get(first).energy
+    ));
+  }
+
+  /**
+   * Everyone taking a turn this turn, most energy first.
+   *
+   * @return Actors, don't change it
+   */
+  public Array<Entity> getActing() {
+    return acting;
+  }
+
+  /**
+   * Whether an entity's still on the timeline, they might've been removed since the turn started.
+   *
+   * @param entity Who to check
+   * @return If they're still around
+   */
+  public boolean isScheduled(Entity entity) {
+    return scheduled.containsKey(entity);
+  }
+
+  /**
+   * How many turns it's been since an actor last acted, for things that happen every turn.
+   *
+   * @param entity An actor acting this turn
+   * @return Turns, 1 if they act every turn
+   */
+  public int getElapsed(Entity entity) {
+    Actor actor = scheduled.get(entity);
+
+    return actor == null ? 1 : actor.elapsed;
+  }
+
+  /**
+   * Bring an actor back to full simulation, they'll act next turn if they've got the energy.
+   *
+   * @param entity Who to wake
+   */
+  public void wake(Entity entity) {
+    Actor actor = scheduled.get(entity);
+
+    if (actor != null && actor.dormant) {
+      promote(actor);
+    }
+  }
+
+  // First turn they'll have enough energy again, or a while off if they're dormant
+  private float nextTurn(Actor actor) {
+    AttributesComponent attributes = ComponentMappers.attributes.get(actor.entity);
+    int missing = ACTION_COST - attributes.energy;
+    int next;
+
+    if (ComponentMappers.player.has(actor.entity) || missing <= 0 || attributes.speed <= 0) {
+      next = turn + 1;
+    } else {
+      next = turn + (missing + attributes.speed - 1) / attributes.speed;
+    }
+
+    actor.dormant = isDormant(actor.entity);
+
+    return actor.dormant ? Math.max(next, turn + DORMANT_INTERVAL) : next;
+  }
+
+  // Only the chunks around the player get looked at, so this doesn't grow with the level
+  private void promoteNearPlayer() {
+    if (WorldManager.player == null || !ComponentMappers.position.has(WorldManager.player)) {
+      return;
+    }
+
+    Map map = WorldManager.world.getCurrentMap();
+    Vector2 playerPosition = ComponentMappers.position.get(WorldManager.player).pos;
+    int radius = Main.debug.simulationRadius;
+
+    int minChunkX = Math.max((int) playerPosition.x - radius, 0) / Map.CHUNK_SIZE;
+    int minChunkY = Math.max((int) playerPosition.y - radius, 0) / Map.CHUNK_SIZE;
+    int maxChunkX = Math.min(((int) playerPosition.x + radius) / Map.CHUNK_SIZE, map.chunksX - 1);
+    int maxChunkY = Math.min(((int) playerPosition.y + radius) / Map.CHUNK_SIZE, map.chunksY - 1);
+
+    for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+      for (int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++) {
+        Array<Entity> entities = WorldManager.entityIndex.getChunk(chunkX, chunkY);
+
+        for (int i = 0; i < entities.size; i++) {
+          Actor actor = scheduled.get(entities.get(i));
+
+          if (actor != null && actor.dormant && !isDormant(actor.entity)) {
+            promote(actor);
+          }
+        }
+      }
+    }
+  }
+
+  private void promote(Actor actor) {
+    actor.dormant = false;
+
+    if (actor.queued && actor.getValue() > turn) {
+      timeline.setValue(actor, turn);
+    }
+  }
+
+  private boolean isDormant(Entity entity) {
+    Entity player = WorldManager.player;
+
+    if (player == null || entity == player || !ComponentMappers.position.has(entity)
+        || !ComponentMappers.position.has(player)) {
+      return false;
+    }
+
+    Vector2 position = ComponentMappers.position.get(entity).pos;
+    Vector2 playerPosition = ComponentMappers.position.get(player).pos;
+    int radius = Main.debug.simulationRadius;
+
+    if (Math.abs(position.x - playerPosition.x) > radius
+        || Math.abs(position.y - playerPosition.y) > radius) {
+      return true;
+    }
+
+    BrainComponent brain = ComponentMappers.brain.get(entity);
+
+    return brain != null && brain.stateMachine.isInState(Brain.SLEEP)
+        && !WorldManager.entityHelpers.canSee(player, entity)
+        && !WorldManager.entityHelpers.canHear(entity, player);
+  }
+
+  private static class Actor extends BinaryHeap.Node {
+    final Entity entity;
+    int lastTurn;
+    int elapsed = 1;
+    boolean queued = false;
+    boolean dormant = false;
+
+    Actor(Entity entity) {
+      super(0);
+      this.entity = entity;
+    }
+  }
+}
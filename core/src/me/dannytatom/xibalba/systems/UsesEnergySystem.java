@@ -1,26 +1,55 @@
 package me.dannytatom.xibalba.systems;
 
 import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.systems.SortedIteratingSystem;
+import com.badlogic.gdx.utils.Array;
 
-import java.util.Comparator;
+public abstract class UsesEnergySystem extends EntitySystem {
+  private final Family family;
+  private final boolean everyTurn;
 
-import me.dannytatom.xibalba.components.AttributesComponent;
-import me.dannytatom.xibalba.utils.ComponentMappers;
-
-public abstract class UsesEnergySystem extends SortedIteratingSystem {
+  /**
+   * Goes over whoever the TurnScheduler says is acting this turn, in its order, skipping anyone
+   * not in the family.
+   *
+   * @param family Who this system cares about
+   */
   protected UsesEnergySystem(Family family) {
-    super(family, new EnergyComparator());
+    this(family, false);
+  }
+
+  /**
+   * Same as above, but for things that happen every turn whether you act or not (statuses
+   * wearing off, standing in fire). Those get processed once for every turn the actor sat out.
+   *
+   * @param family    Who this system cares about
+   * @param everyTurn Whether to catch up on turns the actor didn't act
+   */
+  protected UsesEnergySystem(Family family, boolean everyTurn) {
+    this.family = family;
+    this.everyTurn = everyTurn;
   }
 
-  private static class EnergyComparator implements Comparator<Entity> {
-    @Override
-    public int compare(Entity e1, Entity e2) {
-      AttributesComponent a1 = ComponentMappers.attributes.get(e1);
-      AttributesComponent a2 = ComponentMappers.attributes.get(e2);
+  @Override
+  public void update(float deltaTime) {
+    TurnScheduler scheduler = getEngine().getSystem(TurnScheduler.class);
+    Array<Entity> acting = scheduler.getActing();
 
-      return Integer.compare(a2.energy, a1.energy);
+    for (int i = 0; i < acting.size; i++) {
+      Entity entity = acting.get(i);
+      int times = everyTurn ? scheduler.getElapsed(entity) : 1;
+
+      for (int j = 0; j < times; j++) {
+        // Statuses come off, people die
+        if (!scheduler.isScheduled(entity) || !family.matches(entity)) {
+          break;
+        }
+
+        processEntity(entity, deltaTime);
+      }
     }
   }
+
+  protected abstract void processEntity(Entity entity, float deltaTime);
 }
@@ -5,7 +5,6 @@ import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.utils.ImmutableArray;
-import com.badlogic.gdx.math.Vector2;
 
 import me.dannytatom.xibalba.components.AttributesComponent;
 import me.dannytatom.xibalba.components.PlayerComponent;
@@ -58,11 +57,10 @@ public class ExploreSystem extends EntitySystem {
       }
 
       // Get new path if we're done
-      if (explore.path.size == 0) {
+      if (explore.path.isEmpty()) {
         WorldManager.world.getCurrentMap().dijkstra.updatePlayerExplore();
-
-        explore.path = WorldManager.world.getCurrentMap().dijkstra.findExplorePath(
-            ComponentMappers.position.get(WorldManager.player).pos
+        WorldManager.world.getCurrentMap().dijkstra.findExplorePath(
+            ComponentMappers.position.get(WorldManager.player).pos, explore.path
         );
       }
 
@@ -71,10 +69,10 @@ public class ExploreSystem extends EntitySystem {
       // Walk it out!
       if (attributes.energy >= MovementComponent.COST) {
         // Start walking
-        Vector2 cell = explore.path.get(0);
-
-        entity.add(new MovementComponent(cell));
-        explore.path.removeIndex(0);
+        entity.add(ComponentMappers.player.get(entity).step.set(
+            explore.path.getX(0), explore.path.getY(0)
+        ));
+        explore.path.advance();
       }
     }
   }
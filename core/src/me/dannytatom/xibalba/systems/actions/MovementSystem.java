@@ -10,6 +10,7 @@ import me.dannytatom.xibalba.components.PlayerComponent;
 import me.dannytatom.xibalba.components.PositionComponent;
 import me.dannytatom.xibalba.components.VisualComponent;
 import me.dannytatom.xibalba.components.actions.MovementComponent;
+import me.dannytatom.xibalba.systems.SensesSystem;
 import me.dannytatom.xibalba.systems.UsesEnergySystem;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 import me.dannytatom.xibalba.world.WorldManager;
@@ -81,9 +82,10 @@ public class MovementSystem extends UsesEnergySystem {
         entity, movement.pos.x, movement.pos.y
     );
 
-    WorldManager.entityHelpers.updateSenses(entity);
-
     if (ComponentMappers.player.has(entity)) {
+      // Player's senses are needed straight away, everyone else's get done in a batch
+      WorldManager.entityHelpers.updateSenses(entity);
+
       WorldManager.world.getCurrentMap().dijkstra.updateTargetPlayerLand();
 
       PlayerComponent playerDetails = ComponentMappers.player.get(WorldManager.player);
@@ -92,6 +94,8 @@ public class MovementSystem extends UsesEnergySystem {
           && !WorldManager.entityHelpers.canSee(WorldManager.player, playerDetails.lastHitEntity)) {
         playerDetails.lastHitEntity = null;
       }
+    } else {
+      WorldManager.engine.getSystem(SensesSystem.class).moved(entity);
     }
   }
 }
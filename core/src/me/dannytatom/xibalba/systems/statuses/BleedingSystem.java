@@ -12,7 +12,7 @@ import me.dannytatom.xibalba.world.WorldManager;
 
 public class BleedingSystem extends UsesEnergySystem {
   public BleedingSystem() {
-    super(Family.all(BleedingComponent.class, AttributesComponent.class).get());
+    super(Family.all(BleedingComponent.class, AttributesComponent.class).get(), true);
   }
 
   @Override
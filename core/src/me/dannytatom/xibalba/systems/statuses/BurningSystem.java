@@ -12,7 +12,7 @@ import me.dannytatom.xibalba.world.WorldManager;
 
 public class BurningSystem extends UsesEnergySystem {
   public BurningSystem() {
-    super(Family.all(BurningComponent.class, AttributesComponent.class).get());
+    super(Family.all(BurningComponent.class, AttributesComponent.class).get(), true);
   }
 
   @Override
@@ -11,7 +11,7 @@ import me.dannytatom.xibalba.world.WorldManager;
 
 public class CharmedSystem extends UsesEnergySystem {
   public CharmedSystem() {
-    super(Family.all(CharmedComponent.class).get());
+    super(Family.all(CharmedComponent.class).get(), true);
   }
 
   @Override
@@ -9,7 +9,7 @@ import me.dannytatom.xibalba.utils.ComponentMappers;
 
 public class CrippledSystem extends UsesEnergySystem {
   public CrippledSystem() {
-    super(Family.all(CrippledComponent.class).get());
+    super(Family.all(CrippledComponent.class).get(), true);
   }
 
   @Override
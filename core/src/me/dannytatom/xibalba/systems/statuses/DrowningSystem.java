@@ -19,7 +19,7 @@ public class DrowningSystem extends UsesEnergySystem {
     super(
         Family.all(
             DrowningComponent.class, AttributesComponent.class, PositionComponent.class
-        ).get()
+        ).get(), true
     );
   }
 
@@ -9,7 +9,7 @@ import me.dannytatom.xibalba.utils.ComponentMappers;
 
 public class EncumberedSystem extends UsesEnergySystem {
   public EncumberedSystem() {
-    super(Family.all(EncumberedComponent.class).get());
+    super(Family.all(EncumberedComponent.class).get(), true);
   }
 
   @Override
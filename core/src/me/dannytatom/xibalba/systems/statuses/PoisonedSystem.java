@@ -11,7 +11,7 @@ import me.dannytatom.xibalba.world.WorldManager;
 
 public class PoisonedSystem extends UsesEnergySystem {
   public PoisonedSystem() {
-    super(Family.all(PoisonedComponent.class).get());
+    super(Family.all(PoisonedComponent.class).get(), true);
   }
 
   @Override
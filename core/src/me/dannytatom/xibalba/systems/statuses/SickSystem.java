@@ -12,7 +12,7 @@ import me.dannytatom.xibalba.world.WorldManager;
 
 public class SickSystem extends UsesEnergySystem {
   public SickSystem() {
-    super(Family.all(SickComponent.class).get());
+    super(Family.all(SickComponent.class).get(), true);
   }
 
   @Override
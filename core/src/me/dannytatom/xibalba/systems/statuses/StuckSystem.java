@@ -9,7 +9,7 @@ import me.dannytatom.xibalba.utils.ComponentMappers;
 
 public class StuckSystem extends UsesEnergySystem {
   public StuckSystem() {
-    super(Family.all(StuckComponent.class).get());
+    super(Family.all(StuckComponent.class).get(), true);
   }
 
   @Override
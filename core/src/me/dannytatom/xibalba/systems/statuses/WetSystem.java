@@ -11,7 +11,7 @@ import me.dannytatom.xibalba.world.WorldManager;
 
 public class WetSystem extends UsesEnergySystem {
   public WetSystem() {
-    super(Family.all(WetComponent.class, PositionComponent.class).get());
+    super(Family.all(WetComponent.class, PositionComponent.class).get(), true);
   }
 
   @Override
@@ -22,7 +22,6 @@ import me.dannytatom.xibalba.components.LimbComponent;
 import me.dannytatom.xibalba.components.MouseMovementComponent;
 import me.dannytatom.xibalba.components.PlayerComponent;
 import me.dannytatom.xibalba.components.PositionComponent;
-import me.dannytatom.xibalba.components.RainDropComponent;
 import me.dannytatom.xibalba.components.SkillsComponent;
 import me.dannytatom.xibalba.components.TraitsComponent;
 import me.dannytatom.xibalba.components.TrapComponent;
@@ -139,9 +138,6 @@ public final class ComponentMappers {
   public static final ComponentMapper<LightComponent> light =
       ComponentMapper.getFor(LightComponent.class);
 
-  public static final ComponentMapper<RainDropComponent> rainDrop =
-      ComponentMapper.getFor(RainDropComponent.class);
-
   public static final ComponentMapper<PlayerComponent> player =
       ComponentMapper.getFor(PlayerComponent.class);
 
@@ -0,0 +1,53 @@
+package me.dannytatom.xibalba.utils;
+
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+
+// Grayscale bit from
+// https://stackoverflow.com/questions/28874621/libgdx-grayscale-shader-fade-effect
+public class CompositeShader {
+  private static final String vertexShader
+      = "attribute vec4 a_position;\n"
+      + "attribute vec4 a_color;\n"
+      + "attribute vec2 a_texCoord0;\n"
+      + "uniform mat4 u_projTrans;\n"
+      + "varying vec2 v_texCoords;\n"
+      + "varying vec2 v_position;\n"
+      + "\n"
+      + "void main() {\n"
+      + "    v_texCoords = a_texCoord0;\n"
+      + "    v_position = a_position.xy;\n"
+      + "    gl_Position = u_projTrans * a_position;\n"
+      + "}";
+
+  // u_texture is the world, u_cells is one texel per cell with how visible it is in r, how much
+  // light is on it in g & how much wrath should gray it out in b, u_lights is the light color
+  private static final String fragmentShader
+      = "#ifdef GL_ES\n"
+      + "    precision mediump float;\n"
+      + "#endif\n"
+      + "\n"
+      + "varying vec2 v_texCoords;\n"
+      + "varying vec2 v_position;\n"
+      + "uniform sampler2D u_texture;\n"
+      + "uniform sampler2D u_cells;\n"
+      + "uniform sampler2D u_lights;\n"
+      + "uniform mat4 u_screenToWorld;\n"
+      + "uniform vec2 u_mapSize;\n"
+      + "uniform vec3 u_shadowColor;\n"
+      + "uniform float u_grayness;\n"
+      + "\n"
+      + "void main() {\n"
+      + "  vec2 world = (u_screenToWorld * vec4(v_position, 0.0, 1.0)).xy;\n"
+      + "  vec2 cellCoords = world / u_mapSize;\n"
+      + "  float inside = step(0.0, cellCoords.x) * step(cellCoords.x, 1.0)\n"
+      + "      * step(0.0, cellCoords.y) * step(cellCoords.y, 1.0);\n"
+      + "  vec4 cell = mix(vec4(1.0, 0.0, 0.0, 1.0), texture2D(u_cells, cellCoords), inside);\n"
+      + "  vec3 c = texture2D(u_texture, v_texCoords).rgb;\n"
+      + "  c = mix(u_shadowColor, c, cell.r);\n"
+      + "  c = mix(c, texture2D(u_lights, cellCoords).rgb, cell.g);\n"
+      + "  float gray = dot(c, vec3(0.22, 0.707, 0.071));\n"
+      + "  gl_FragColor = vec4(mix(c, vec3(gray), u_grayness * cell.b), 1.0);\n"
+      + "}";
+
+  public static final ShaderProgram shader = new ShaderProgram(vertexShader, fragmentShader);
+}
@@ -0,0 +1,136 @@
+package me.dannytatom.xibalba.utils;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import me.dannytatom.xibalba.Main;
+
+import org.yaml.snakeyaml.Yaml;
+
+public class DataPack {
+  // Bump this whenever the data classes change, so old packs get ignored instead of misread
+  private static final int VERSION = 1;
+
+  /**
+   * Write every template, plus the raw ability YAML (abilities keep state, so they're still
+   * parsed per player), into one file.
+   *
+   * @param templates Parsed templates
+   * @param abilities Raw ability YAML
+   * @param file      Where to write it
+   * @throws IOException If it can't be written
+   */
+  public static void write(TemplateRegistry templates, HashMap<String, String> abilities,
+                           File file) throws IOException {
+    Kryo kryo = new Kryo();
+
+    try (Output output = new Output(new FileOutputStream(file))) {
+      output.writeInt(VERSION);
+
+      kryo.writeObject(output, abilities);
+      kryo.writeObject(output, templates.enemies);
+      kryo.writeObject(output, templates.items);
+      kryo.writeObject(output, templates.traits);
+      kryo.writeObject(output, templates.defects);
+      kryo.writeObject(output, templates.gods);
+    }
+  }
+
+  /**
+   * Fill Main.abilitiesData and Main.templates from a pack.
+   *
+   * @param bytes The whole pack
+   * @return False if the pack was from a different version or broken, so use the YAML instead
+   */
+  @SuppressWarnings("unchecked")
+  public static boolean read(byte[] bytes) {
+    Kryo kryo = new Kryo();
+
+    try (Input input = new Input(bytes)) {
+      if (input.readInt() != VERSION) {
+        return false;
+      }
+
+      HashMap<String, String> abilities = kryo.readObject(input, HashMap.class);
+      TemplateRegistry templates = new TemplateRegistry();
+
+      templates.enemies.putAll(kryo.readObject(input, HashMap.class));
+      templates.items.putAll(kryo.readObject(input, HashMap.class));
+      templates.traits.putAll(kryo.readObject(input, HashMap.class));
+      templates.defects.putAll(kryo.readObject(input, HashMap.class));
+      templates.gods.putAll(kryo.readObject(input, HashMap.class));
+
+      Main.abilitiesData = abilities;
+      Main.templates = templates;
+
+      return true;
+    } catch (KryoException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Build the pack, run by the packData Gradle task.
+   *
+   * @param args Data directory (the one with manifest.yaml in it), then where to write the pack
+   * @throws IOException If something can't be read or written
+   */
+  public static void main(String[] args) throws IOException {
+    File root = new File(args[0]);
+    File pack = new File(args[1]);
+
+    HashMap<String, HashMap<String, String>> categories = new HashMap<>();
+    Yaml manifestYaml = new Yaml();
+
+    try (Reader reader = Files.newBufferedReader(
+        new File(root, "manifest.yaml").toPath(), StandardCharsets.UTF_8
+    )) {
+      @SuppressWarnings("unchecked")
+      HashMap<String, ArrayList<String>> dataFiles
+          = (HashMap<String, ArrayList<String>>) manifestYaml.load(reader);
+
+      for (Map.Entry<String, ArrayList<String>> entry : dataFiles.entrySet()) {
+        HashMap<String, String> raw = new HashMap<>();
+
+        for (String file : entry.getValue()) {
+          byte[] contents = Files.readAllBytes(new File(root, file).toPath());
+          raw.put(
+              file.split("/")[1].replaceAll(".yaml", ""),
+              new String(contents, StandardCharsets.UTF_8)
+          );
+        }
+
+        categories.put(entry.getKey(), raw);
+      }
+    }
+
+    Main.traitsData = categories.get("traits");
+    Main.defectsData = categories.get("defects");
+    Main.godsData = categories.get("gods");
+    Main.enemiesData = categories.get("enemies");
+    Main.itemsData = categories.get("items");
+
+    TemplateRegistry templates = new TemplateRegistry();
+    templates.load();
+
+    HashMap<String, String> abilities = categories.get("abilities");
+
+    if (pack.getParentFile() != null) {
+      pack.getParentFile().mkdirs();
+    }
+
+    write(templates, abilities == null ? new HashMap<>() : abilities, pack);
+  }
+}
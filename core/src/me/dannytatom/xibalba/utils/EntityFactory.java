@@ -3,19 +3,18 @@ package me.dannytatom.xibalba.utils;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Colors;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.I18NBundle;
 
 import java.util.ArrayList;
+import java.util.TreeMap;
 
 import me.dannytatom.xibalba.Main;
 import me.dannytatom.xibalba.components.AttributesComponent;
 import me.dannytatom.xibalba.components.BodyComponent;
 import me.dannytatom.xibalba.components.BrainComponent;
 import me.dannytatom.xibalba.components.CorpseComponent;
-import me.dannytatom.xibalba.components.DecorationComponent;
 import me.dannytatom.xibalba.components.EffectsComponent;
 import me.dannytatom.xibalba.components.EnemyComponent;
 import me.dannytatom.xibalba.components.EntranceComponent;
@@ -24,7 +23,6 @@ import me.dannytatom.xibalba.components.ItemComponent;
 import me.dannytatom.xibalba.components.LightComponent;
 import me.dannytatom.xibalba.components.LimbComponent;
 import me.dannytatom.xibalba.components.PositionComponent;
-import me.dannytatom.xibalba.components.RainDropComponent;
 import me.dannytatom.xibalba.components.SkillsComponent;
 import me.dannytatom.xibalba.components.TrapComponent;
 import me.dannytatom.xibalba.components.VisualComponent;
@@ -32,23 +30,10 @@ import me.dannytatom.xibalba.components.items.AmmunitionComponent;
 import me.dannytatom.xibalba.components.items.ArmorComponent;
 import me.dannytatom.xibalba.components.items.WeaponComponent;
 import me.dannytatom.xibalba.components.traps.SpiderWebComponent;
-import me.dannytatom.xibalba.effects.Bleed;
-import me.dannytatom.xibalba.effects.Charm;
-import me.dannytatom.xibalba.effects.DealDamage;
-import me.dannytatom.xibalba.effects.Poison;
-import me.dannytatom.xibalba.effects.RaiseHealth;
-import me.dannytatom.xibalba.effects.RaiseSpeed;
-import me.dannytatom.xibalba.effects.StartFire;
 import me.dannytatom.xibalba.utils.yaml.EnemyData;
 import me.dannytatom.xibalba.utils.yaml.ItemData;
-import me.dannytatom.xibalba.utils.yaml.ItemRequiredComponentData;
-import me.dannytatom.xibalba.world.Map;
 import me.dannytatom.xibalba.world.WorldManager;
 
-import org.yaml.snakeyaml.TypeDescription;
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.Constructor;
-
 public class EntityFactory {
   private final I18NBundle i18n;
 
@@ -64,22 +49,15 @@ public class EntityFactory {
    * @return The enemy
    */
   public Entity createEnemy(String name, Vector2 position) {
-    Constructor constructor = new Constructor(EnemyData.class);
-    constructor.addTypeDescription(new TypeDescription(Bleed.class, "!Bleed"));
-    constructor.addTypeDescription(new TypeDescription(Charm.class, "!Charm"));
-    constructor.addTypeDescription(new TypeDescription(DealDamage.class, "!DealDamage"));
-    constructor.addTypeDescription(new TypeDescription(Poison.class, "!Poison"));
-    constructor.addTypeDescription(new TypeDescription(RaiseHealth.class, "!RaiseHealth"));
-    constructor.addTypeDescription(new TypeDescription(RaiseSpeed.class, "!RaiseSpeed"));
-    Yaml yaml = new Yaml(constructor);
-
-    EnemyData data = (EnemyData) yaml.load(Main.enemiesData.get(name));
+    EnemyData data = Main.templates.enemies.get(name);
     Entity entity = new Entity();
 
     entity.add(new PositionComponent(position));
     entity.add(new EnemyComponent());
     entity.add(new SkillsComponent());
-    entity.add(new BodyComponent(data.bodyParts, data.wearableBodyParts));
+
+    // Body parts get lopped off, so every enemy needs their own
+    entity.add(new BodyComponent(new TreeMap<>(data.bodyParts), data.wearableBodyParts));
 
     entity.add(new VisualComponent(
             Main.asciiAtlas.createSprite(
@@ -123,18 +101,7 @@ public class EntityFactory {
    * @return The item
    */
   public Entity createItem(String key, Vector2 position) {
-    Constructor constructor = new Constructor(ItemData.class);
-    constructor.addTypeDescription(new TypeDescription(Bleed.class, "!Bleed"));
-    constructor.addTypeDescription(new TypeDescription(Charm.class, "!Charm"));
-    constructor.addTypeDescription(new TypeDescription(DealDamage.class, "!DealDamage"));
-    constructor.addTypeDescription(new TypeDescription(Poison.class, "!Poison"));
-    constructor.addTypeDescription(new TypeDescription(RaiseHealth.class, "!RaiseHealth"));
-    constructor.addTypeDescription(new TypeDescription(StartFire.class, "!StartFire"));
-    TypeDescription itemDescription = new TypeDescription(ItemData.class);
-    itemDescription.putListPropertyType("requiredComponent", ItemRequiredComponentData.class);
-    constructor.addTypeDescription(itemDescription);
-    Yaml yaml = new Yaml(constructor);
-    ItemData data = (ItemData) yaml.load(Main.itemsData.get(key));
+    ItemData data = Main.templates.items.get(key);
     Entity entity = new Entity();
 
     entity.add(new PositionComponent(position));
@@ -295,18 +262,7 @@ public class EntityFactory {
    * @return The entrance entity
    */
   public Entity createEntrance(int mapIndex) {
-    Map map = WorldManager.world.getMap(mapIndex);
-
-    int cellX;
-    int cellY;
-
-    do {
-      cellX = MathUtils.random(0, map.width - 1);
-      cellY = MathUtils.random(0, map.height - 1);
-    } while (WorldManager.mapHelpers.isBlocked(mapIndex, new Vector2(cellX, cellY))
-        && WorldManager.mapHelpers.getWallNeighbours(mapIndex, cellX, cellY) >= 4);
-
-    Vector2 position = new Vector2(cellX, cellY);
+    Vector2 position = WorldManager.mapHelpers.getRandomOpenPositionAwayFromWalls(mapIndex);
     Entity entity = new Entity();
     entity.add(new EntranceComponent());
     entity.add(new PositionComponent(position));
@@ -325,18 +281,7 @@ public class EntityFactory {
    * @return The exit entity
    */
   public Entity createExit(int mapIndex) {
-    Map map = WorldManager.world.getMap(mapIndex);
-
-    int cellX;
-    int cellY;
-
-    do {
-      cellX = MathUtils.random(0, map.width - 1);
-      cellY = MathUtils.random(0, map.height - 1);
-    } while (WorldManager.mapHelpers.isBlocked(mapIndex, new Vector2(cellX, cellY))
-        && WorldManager.mapHelpers.getWallNeighbours(mapIndex, cellX, cellY) >= 4);
-
-    Vector2 position = new Vector2(cellX, cellY);
+    Vector2 position = WorldManager.mapHelpers.getRandomOpenPositionAwayFromWalls(mapIndex);
     Entity entity = new Entity();
     entity.add(new ExitComponent());
     entity.add(new PositionComponent(position));
@@ -347,23 +292,4 @@ public class EntityFactory {
 
     return entity;
   }
-
-  /**
-   * Create rain drop.
-   *
-   * @return The rain drop
-   */
-  public Entity createRainDrop() {
-    Entity entity = new Entity();
-    Vector2 position = new Vector2(0, 0);
-
-    entity.add(new DecorationComponent(false));
-    entity.add(new RainDropComponent());
-    entity.add(new PositionComponent(position));
-    entity.add(new VisualComponent(
-        Main.asciiAtlas.createSprite("1502"), position, Colors.get("CYAN")
-    ));
-
-    return entity;
-  }
 }
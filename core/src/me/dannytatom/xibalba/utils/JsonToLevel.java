@@ -7,6 +7,7 @@ import java.util.HashMap;
 public class JsonToLevel {
   public String type;
   public HashMap<String, String> size;
+  public float rain;
   public Array<HashMap<String, String>> enemies;
   public Array<HashMap<String, String>> items;
   public Array<HashMap<String, String>> traps;
@@ -0,0 +1,86 @@
+package me.dannytatom.xibalba.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import me.dannytatom.xibalba.Main;
+import me.dannytatom.xibalba.effects.Bleed;
+import me.dannytatom.xibalba.effects.Charm;
+import me.dannytatom.xibalba.effects.DealDamage;
+import me.dannytatom.xibalba.effects.Poison;
+import me.dannytatom.xibalba.effects.RaiseHealth;
+import me.dannytatom.xibalba.effects.RaiseSpeed;
+import me.dannytatom.xibalba.effects.StartFire;
+import me.dannytatom.xibalba.utils.yaml.DefectData;
+import me.dannytatom.xibalba.utils.yaml.EnemyData;
+import me.dannytatom.xibalba.utils.yaml.GodData;
+import me.dannytatom.xibalba.utils.yaml.ItemData;
+import me.dannytatom.xibalba.utils.yaml.ItemRequiredComponentData;
+import me.dannytatom.xibalba.utils.yaml.TraitData;
+
+import org.yaml.snakeyaml.TypeDescription;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+
+public class TemplateRegistry {
+  public final HashMap<String, EnemyData> enemies;
+  public final HashMap<String, ItemData> items;
+  public final HashMap<String, TraitData> traits;
+  public final HashMap<String, DefectData> defects;
+  public final HashMap<String, GodData> gods;
+
+  /**
+   * Every enemy, item, trait, defect & god, parsed once when the game loads. These are shared, so
+   * anything that gets changed after spawning needs copying first (EntityFactory does this).
+   */
+  public TemplateRegistry() {
+    enemies = new HashMap<>();
+    items = new HashMap<>();
+    traits = new HashMap<>();
+    defects = new HashMap<>();
+    gods = new HashMap<>();
+  }
+
+  /**
+   * Parse everything LoadingScreen read in.
+   */
+  public void load() {
+    Constructor enemyConstructor = new Constructor(EnemyData.class);
+    enemyConstructor.addTypeDescription(new TypeDescription(Bleed.class, "!Bleed"));
+    enemyConstructor.addTypeDescription(new TypeDescription(Charm.class, "!Charm"));
+    enemyConstructor.addTypeDescription(new TypeDescription(DealDamage.class, "!DealDamage"));
+    enemyConstructor.addTypeDescription(new TypeDescription(Poison.class, "!Poison"));
+    enemyConstructor.addTypeDescription(new TypeDescription(RaiseHealth.class, "!RaiseHealth"));
+    enemyConstructor.addTypeDescription(new TypeDescription(RaiseSpeed.class, "!RaiseSpeed"));
+    parse(new Yaml(enemyConstructor), Main.enemiesData, enemies);
+
+    Constructor itemConstructor = new Constructor(ItemData.class);
+    itemConstructor.addTypeDescription(new TypeDescription(Bleed.class, "!Bleed"));
+    itemConstructor.addTypeDescription(new TypeDescription(Charm.class, "!Charm"));
+    itemConstructor.addTypeDescription(new TypeDescription(DealDamage.class, "!DealDamage"));
+    itemConstructor.addTypeDescription(new TypeDescription(Poison.class, "!Poison"));
+    itemConstructor.addTypeDescription(new TypeDescription(RaiseHealth.class, "!RaiseHealth"));
+    itemConstructor.addTypeDescription(new TypeDescription(StartFire.class, "!StartFire"));
+    TypeDescription itemDescription = new TypeDescription(ItemData.class);
+    itemDescription.putListPropertyType("requiredComponent", ItemRequiredComponentData.class);
+    itemConstructor.addTypeDescription(itemDescription);
+    parse(new Yaml(itemConstructor), Main.itemsData, items);
+
+    parse(new Yaml(new Constructor(TraitData.class)), Main.traitsData, traits);
+    parse(new Yaml(new Constructor(DefectData.class)), Main.defectsData, defects);
+    parse(new Yaml(new Constructor(GodData.class)), Main.godsData, gods);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> void parse(Yaml yaml, HashMap<String, String> raw, HashMap<String, T> into) {
+    into.clear();
+
+    if (raw == null) {
+      return;
+    }
+
+    for (Map.Entry<String, String> entry : raw.entrySet()) {
+      into.put(entry.getKey(), (T) yaml.load(entry.getValue()));
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+public class CellSampler {
+  private static final MapCell.Type[] TYPES = MapCell.Type.values();
+
+  // How many random picks to throw away before walking the list instead
+  private static final int ATTEMPTS = 16;
+
+  private final IntArray[] cells;
+  private final int[] positions;
+
+  /**
+   * Every cell on a map, listed by type, so picking a random floor or water cell is one random
+   * number instead of guessing until we land on one.
+   *
+   * @param map The map
+   */
+  CellSampler(Map map) {
+    cells = new IntArray[TYPES.length];
+    positions = new int[map.width * map.height];
+
+    for (int i = 0; i < TYPES.length; i++) {
+      cells[i] = new IntArray();
+    }
+
+    Arrays.fill(positions, -1);
+
+    for (int index = 0; index < positions.length; index++) {
+      add(index, map.getType(index));
+    }
+  }
+
+  public int count(MapCell.Type type) {
+    return cells[type.ordinal()].size;
+  }
+
+  /**
+   * A random cell of the given type.
+   *
+   * @param type Type of cell
+   * @return Cell index, or -1 if there aren't any
+   */
+  public int random(MapCell.Type type) {
+    IntArray list = cells[type.ordinal()];
+
+    return list.size == 0 ? -1 : list.get(MathUtils.random(list.size - 1));
+  }
+
+  /**
+   * A random cell of the given type, skipping some. Tries a few random picks first, if they're all
+   * excluded it goes through the rest in order from a random start so it can't spin forever.
+   *
+   * @param type     Type of cell
+   * @param excluded True for cells we don't want
+   * @return Cell index, or -1 if there aren't any we want
+   */
+  public int random(MapCell.Type type, IntPredicate excluded) {
+    IntArray list = cells[type.ordinal()];
+
+    if (list.size == 0) {
+      return -1;
+    }
+
+    for (int i = 0; i < ATTEMPTS; i++) {
+      int index = list.get(MathUtils.random(list.size - 1));
+
+      if (!excluded.test(index)) {
+        return index;
+      }
+    }
+
+    int start = MathUtils.random(list.size - 1);
+
+    for (int i = 0; i < list.size; i++) {
+      int index = list.get((start + i) % list.size);
+
+      if (!excluded.test(index)) {
+        return index;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * A cell changed type, move it to the right list.
+   *
+   * @param index Cell index
+   * @param from  What it was
+   * @param to    What it is now
+   */
+  void changed(int index, MapCell.Type from, MapCell.Type to) {
+    if (from != to) {
+      remove(index, from);
+      add(index, to);
+    }
+  }
+
+  private void add(int index, MapCell.Type type) {
+    IntArray list = cells[type.ordinal()];
+
+    positions[index] = list.size;
+    list.add(index);
+  }
+
+  // Swap the last one in to fill the gap, so removing doesn't shift the whole list
+  private void remove(int index, MapCell.Type type) {
+    IntArray list = cells[type.ordinal()];
+    int position = positions[index];
+    int last = list.pop();
+
+    if (last != index) {
+      list.set(position, last);
+      positions[last] = position;
+    }
+
+    positions[index] = -1;
+  }
+}
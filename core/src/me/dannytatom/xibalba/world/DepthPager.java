@@ -0,0 +1,117 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+class DepthPager {
+  private final Kryo kryo;
+
+  /**
+   * Packs levels we're not on into compressed bytes & back. The player and god are left out of
+   * the bytes, anything on the level pointing at them gets pointed back at WorldManager's.
+   */
+  DepthPager() {
+    kryo = WorldSerializers.create(true);
+  }
+
+  /**
+   * Pack a level away.
+   *
+   * @param map      The level map
+   * @param entities Everything on it
+   * @return The packed level
+   */
+  byte[] pack(Map map, Array<Entity> entities) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+    try (Output output = new Output(new DeflaterOutputStream(bytes, deflater))) {
+      write(kryo, output, map, entities);
+    } finally {
+      kryo.reset();
+      deflater.end();
+    }
+
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Unpack a level, putting its map & entities back in the world and making its light (and rain,
+   * in the forest) again.
+   *
+   * @param page  The packed level
+   * @param index Which level it is
+   * @param world Where it goes
+   */
+  void unpack(byte[] page, int index, World world) {
+    try (Input input = new Input(new InflaterInputStream(new ByteArrayInputStream(page)))) {
+      read(kryo, input, index, world);
+    } finally {
+      kryo.reset();
+    }
+
+    restore(world.maps.get(index), index);
+  }
+
+  /**
+   * Write a level without compressing it, SaveGame uses this to save levels that are loaded.
+   *
+   * @param kryo     Kryo to write with
+   * @param output   Where to write it
+   * @param map      The level map
+   * @param entities Everything on it
+   */
+  static void write(Kryo kryo, Output output, Map map, Array<Entity> entities) {
+    kryo.writeObject(output, map);
+    output.writeInt(entities.size, true);
+
+    for (int i = 0; i < entities.size; i++) {
+      kryo.writeObject(output, entities.get(i));
+    }
+  }
+
+  /**
+   * Read a level written by write, putting it in the world. Doesn't make light or weather.
+   *
+   * @param kryo  Kryo to read with
+   * @param input Where to read it from
+   * @param index Which level it is
+   * @param world Where it goes
+   */
+  static void read(Kryo kryo, Input input, int index, World world) {
+    Map map = kryo.readObject(input, Map.class);
+
+    int count = input.readInt(true);
+    Array<Entity> entities = new Array<>(count);
+
+    for (int i = 0; i < count; i++) {
+      entities.add(kryo.readObject(input, Entity.class));
+    }
+
+    world.maps.set(index, map);
+    world.entities.put(index, entities);
+  }
+
+  /**
+   * Light & weather aren't saved, make them again.
+   *
+   * @param map   The level map
+   * @param index Which level it is
+   */
+  static void restore(Map map, int index) {
+    map.light = new MapLight(index);
+
+    if (map.rain > 0) {
+      map.weather = new MapWeather(index);
+    }
+  }
+}
@@ -2,14 +2,38 @@ package me.dannytatom.xibalba.world;
 
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntSet;
+import com.badlogic.gdx.utils.TimeUtils;
 
-import org.apache.commons.lang3.ArrayUtils;
+import java.util.Arrays;
 
 class Dijkstra {
+  static final int UNREACHABLE = Integer.MAX_VALUE;
+
+  private static final int[] NEIGHBOUR_X = {0, 1, 1, 1, 0, -1, -1, -1};
+  private static final int[] NEIGHBOUR_Y = {1, 1, 0, -1, -1, -1, 0, 1};
+
+  // Once a repair has knocked out more than 1/this of the map, starting over is cheaper
+  private static final int REBUILD_FRACTION = 4;
+
   private final Map map;
-  private final MapCell[][] cellMap;
-  private final MapCell.Type[] walkableTypes;
-  private int[][] graph;
+  private final boolean[] walkableTypes;
+  private final int width;
+  private final int height;
+  private final int[] graph;
+  private final boolean[] isGoal;
+  private final IntArray goals;
+
+  // Scratch space, reused between updates
+  private final Array<IntArray> buckets;
+  private final IntArray raised;
+  private final IntArray invalidated;
+  private final IntArray changes;
+  private final IntSet wanted;
+
+  public long lastUpdateTime = 0;
+  public int lastCellsVisited = 0;
 
   /**
    * Dijkstra map.
@@ -20,210 +44,405 @@ class Dijkstra {
    */
   public Dijkstra(Map map, MapCell.Type[] walkableTypes, Array<Vector2> goals) {
     this.map = map;
-    this.cellMap = this.map.getCellMap();
-    this.walkableTypes = walkableTypes;
+    this.width = map.width;
+    this.height = map.height;
+
+    this.walkableTypes = new boolean[MapCell.Type.values().length];
+
+    for (MapCell.Type type : walkableTypes) {
+      if (type != null) {
+        this.walkableTypes[type.ordinal()] = true;
+      }
+    }
+
+    this.graph = new int[width * height];
+    this.isGoal = new boolean[width * height];
+    this.goals = new IntArray();
+
+    this.buckets = new Array<>();
+    this.raised = new IntArray();
+    this.invalidated = new IntArray();
+    this.changes = new IntArray();
+    this.wanted = new IntSet();
 
     createGraph(goals);
   }
 
+  /**
+   * Copy of another dijkstra map, so it can be changed without touching the original.
+   *
+   * @param other The dijkstra map to copy
+   */
+  Dijkstra(Dijkstra other) {
+    this.map = other.map;
+    this.width = other.width;
+    this.height = other.height;
+    this.walkableTypes = other.walkableTypes.clone();
+    this.graph = other.graph.clone();
+    this.isGoal = other.isGoal.clone();
+    this.goals = new IntArray(other.goals);
+
+    this.buckets = new Array<>();
+    this.raised = new IntArray();
+    this.invalidated = new IntArray();
+    this.changes = new IntArray();
+    this.wanted = new IntSet();
+  }
+
   // To get a Dijkstra graph, you start with an integer array representing your graph,
   // with some set of goal cells set to zero and all the rest set to a very high number.
   //
-  // Iterate through the graph's "floor" cells -- skip the impassable wall cells.
-  // If any floor tile has a value that is at least 2 greater than its lowest-value floor neighbor,
-  // set it to be exactly 1 greater than its lowest value neighbor.
-  // Repeat until no changes are made.
+  // Instead of sweeping the whole graph until nothing changes, every goal goes into bucket 0
+  // and we pop cells bucket by bucket, giving each walkable neighbour a value of exactly 1
+  // greater than the cell it was reached from. Since every step costs 1, the first value a
+  // cell gets is the lowest it'll ever get, so every cell is only visited once.
   //
   // The resulting grid of numbers represents the number of steps that it
   // will take to get from any given tile to the nearest goal.
   //
   // To find a path, you just walk downhill from starting position to goal position.
   private void createGraph(Array<Vector2> goals) {
-    graph = new int[map.width][map.height];
+    long start = TimeUtils.nanoTime();
+    lastCellsVisited = 0;
+
+    for (int i = 0; i < goals.size; i++) {
+      Vector2 goal = goals.get(i);
+      int index = indexOf((int) goal.x, (int) goal.y);
 
-    for (int x = 0; x < graph.length; x++) {
-      for (int y = 0; y < graph[x].length; y++) {
-        graph[x][y] = 100;
+      if (index != -1 && !isGoal[index]) {
+        isGoal[index] = true;
+        this.goals.add(index);
       }
     }
 
+    rebuild();
+
+    lastUpdateTime = TimeUtils.nanoTime() - start;
+  }
+
+  // Throw everything away and fill it in again from the goals we have now
+  private void rebuild() {
+    Arrays.fill(graph, UNREACHABLE);
+
     for (int i = 0; i < goals.size; i++) {
-      Vector2 goal = goals.get(i);
+      graph[goals.get(i)] = 0;
+      push(goals.get(i), 0);
+    }
 
-      graph[(int) goal.x][(int) goal.y] = 0;
-    }
-
-    boolean dirty = true;
-
-    while (dirty) {
-      boolean changed = false;
-
-      for (int x = 0; x < graph.length; x++) {
-        for (int y = 0; y < graph[x].length; y++) {
-          if (canWalk(x, y)) {
-            int bestNeighbour = 100;
-
-            // North
-            if (canWalk(x, y + 1)) {
-              if (graph[x][y + 1] < bestNeighbour) {
-                bestNeighbour = graph[x][y + 1];
-              }
-            }
-
-            // NorthEast
-            if (canWalk(x + 1, y + 1)) {
-              if (graph[x + 1][y + 1] < bestNeighbour) {
-                bestNeighbour = graph[x + 1][y + 1];
-              }
-            }
-
-            // East
-            if (canWalk(x + 1, y)) {
-              if (graph[x + 1][y] < bestNeighbour) {
-                bestNeighbour = graph[x + 1][y];
-              }
-            }
-
-            // SouthEast
-            if (canWalk(x + 1, y - 1)) {
-              if (graph[x + 1][y - 1] < bestNeighbour) {
-                bestNeighbour = graph[x + 1][y - 1];
-              }
-            }
-
-            // South
-            if (canWalk(x, y - 1)) {
-              if (graph[x][y - 1] < bestNeighbour) {
-                bestNeighbour = graph[x][y - 1];
-              }
-            }
-
-            // SouthWest
-            if (canWalk(x - 1, y - 1)) {
-              if (graph[x - 1][y - 1] < bestNeighbour) {
-                bestNeighbour = graph[x - 1][y - 1];
-              }
-            }
-
-            // West
-            if (canWalk(x - 1, y)) {
-              if (graph[x - 1][y] < bestNeighbour) {
-                bestNeighbour = graph[x - 1][y];
-              }
-            }
-
-            // NorthWest
-            if (canWalk(x - 1, y + 1)) {
-              if (graph[x - 1][y + 1] < bestNeighbour) {
-                bestNeighbour = graph[x - 1][y + 1];
-              }
-            }
-
-            if (graph[x][y] > bestNeighbour + 2) {
-              graph[x][y] = bestNeighbour + 1;
-              changed = true;
-            }
-          }
+    propagate();
+  }
+
+  /**
+   * Move this map's goals somewhere else. When some goals stay put, only the cells whose distance
+   * actually changes get repaired. When every old goal is gone, which is what happens each step
+   * to a map with one goal following the player, nearly every cell changes by one, so the graph
+   * is rebuilt instead.
+   *
+   * @param newGoals Where the goals are now
+   */
+  public void moveGoals(Array<Vector2> newGoals) {
+    long start = TimeUtils.nanoTime();
+    int oldGoals = goals.size;
+
+    lastCellsVisited = 0;
+
+    changes.clear();
+    wanted.clear();
+
+    for (int i = 0; i < newGoals.size; i++) {
+      Vector2 goal = newGoals.get(i);
+      int index = indexOf((int) goal.x, (int) goal.y);
+
+      if (index != -1 && wanted.add(index) && !isGoal[index]) {
+        isGoal[index] = true;
+        changes.add(index);
+      }
+    }
+
+    for (int i = goals.size - 1; i >= 0; i--) {
+      int index = goals.get(i);
+
+      if (!wanted.contains(index)) {
+        isGoal[index] = false;
+        goals.removeIndex(i);
+        changes.add(index);
+      }
+    }
+
+    int kept = goals.size;
+
+    for (int i = 0; i < changes.size; i++) {
+      if (isGoal[changes.get(i)]) {
+        goals.add(changes.get(i));
+      }
+    }
+
+    // Every cell lost what it was counting from, repairing that visits about twice what a
+    // rebuild does
+    if (oldGoals > 0 && kept == 0) {
+      rebuild();
+    } else {
+      // New goals spread out first, as far as they're closer than what's there. That way the
+      // raise only reaches cells nothing that's staying can hold up
+      for (int i = 0; i < changes.size; i++) {
+        if (isGoal[changes.get(i)]) {
+          graph[changes.get(i)] = 0;
+          push(changes.get(i), 0);
         }
       }
 
-      dirty = changed;
+      propagate();
+      repair(changes);
     }
+
+    lastUpdateTime = TimeUtils.nanoTime() - start;
   }
 
   /**
-   * Go until we find a goal of 0.
+   * A cell changed type (became a bridge, got dug out, etc), repair whatever depended on it.
    *
-   * @param start Starting position
-   * @return The path to take
+   * @param cellX x of the cell that changed
+   * @param cellY y of the cell that changed
    */
-  public Array<Vector2> findPath(Vector2 start) {
-    Array<Vector2> path = new Array<>();
+  public void cellChanged(int cellX, int cellY) {
+    int index = indexOf(cellX, cellY);
 
-    path.add(start);
+    if (index != -1) {
+      long start = TimeUtils.nanoTime();
+      lastCellsVisited = 0;
 
-    boolean buildingPath = true;
+      changes.clear();
+      changes.add(index);
 
-    while (buildingPath) {
-      int lastX = (int) path.get(path.size - 1).x;
-      int lastY = (int) path.get(path.size - 1).y;
-      int lastValue = get(lastX, lastY);
+      repair(changes);
 
-      // Stop if we've gotten to a goal
-      if (lastValue == 0) {
-        buildingPath = false;
-      }
+      lastUpdateTime = TimeUtils.nanoTime() - start;
+    }
+  }
+
+  // Repairing happens in two passes.
+  //
+  // First we raise: any cell that no longer has a neighbour exactly 1 lower than itself
+  // (and isn't a goal) lost whatever it was getting its value from, so it goes back to
+  // unreachable, and the neighbours that might've depended on it get checked too. Cells that
+  // still have support stop it spreading, which is why moveGoals lowers from new goals first.
+  //
+  // Then we lower: every raised or changed cell takes the best value its neighbours can offer,
+  // and gets pushed back into the buckets so the new values spread out from there.
+  private void repair(IntArray changed) {
+    raised.clear();
+    invalidated.clear();
+    raised.addAll(changed);
+
+    while (raised.size > 0) {
+      int index = raised.pop();
+      int value = graph[index];
 
-      // North
-      if (canWalk(lastX, lastY + 1) && get(lastX, lastY + 1) == lastValue - 1) {
-        path.add(new Vector2(lastX, lastY + 1));
+      lastCellsVisited += 1;
 
+      if (value == UNREACHABLE || isGoal[index]) {
         continue;
       }
 
-      // NorthEast
-      if (canWalk(lastX + 1, lastY + 1) && get(lastX + 1, lastY + 1) == lastValue - 1) {
-        path.add(new Vector2(lastX + 1, lastY + 1));
-
+      if (canWalk(index) && hasSupport(index, value)) {
         continue;
       }
 
-      // East
-      if (canWalk(lastX + 1, lastY) && get(lastX + 1, lastY) == lastValue - 1) {
-        path.add(new Vector2(lastX + 1, lastY));
+      graph[index] = UNREACHABLE;
+      invalidated.add(index);
 
-        continue;
+      if (invalidated.size > graph.length / REBUILD_FRACTION) {
+        raised.clear();
+        rebuild();
+
+        return;
       }
 
-      // SouthEast
-      if (canWalk(lastX + 1, lastY - 1) && get(lastX + 1, lastY - 1) == lastValue - 1) {
-        path.add(new Vector2(lastX + 1, lastY - 1));
+      int cellX = index / height;
+      int cellY = index % height;
 
-        continue;
+      for (int i = 0; i < NEIGHBOUR_X.length; i++) {
+        int neighbour = indexOf(cellX + NEIGHBOUR_X[i], cellY + NEIGHBOUR_Y[i]);
+
+        if (neighbour != -1 && graph[neighbour] == value + 1) {
+          raised.add(neighbour);
+        }
       }
+    }
 
-      // South
-      if (canWalk(lastX, lastY - 1) && get(lastX, lastY - 1) == lastValue - 1) {
-        path.add(new Vector2(lastX, lastY - 1));
+    invalidated.addAll(changed);
 
-        continue;
+    for (int i = 0; i < invalidated.size; i++) {
+      int index = invalidated.get(i);
+
+      if (isGoal[index]) {
+        graph[index] = 0;
+      } else if (canWalk(index)) {
+        int best = bestNeighbour(index);
+
+        if (best != UNREACHABLE && best + 1 < graph[index]) {
+          graph[index] = best + 1;
+        }
       }
 
-      // SouthWest
-      if (canWalk(lastX - 1, lastY - 1) && get(lastX - 1, lastY - 1) == lastValue - 1) {
-        path.add(new Vector2(lastX - 1, lastY - 1));
+      if (graph[index] != UNREACHABLE) {
+        push(index, graph[index]);
+      }
+    }
 
-        continue;
+    propagate();
+  }
+
+  private void propagate() {
+    for (int distance = 0; distance < buckets.size; distance++) {
+      IntArray bucket = buckets.get(distance);
+
+      for (int i = 0; i < bucket.size; i++) {
+        int index = bucket.get(i);
+
+        lastCellsVisited += 1;
+
+        // Stale entry, this cell has already been reached cheaper
+        if (graph[index] != distance || !canWalk(index)) {
+          continue;
+        }
+
+        int cellX = index / height;
+        int cellY = index % height;
+
+        for (int j = 0; j < NEIGHBOUR_X.length; j++) {
+          int neighbour = indexOf(cellX + NEIGHBOUR_X[j], cellY + NEIGHBOUR_Y[j]);
+
+          if (neighbour != -1 && canWalk(neighbour) && graph[neighbour] > distance + 1) {
+            graph[neighbour] = distance + 1;
+            push(neighbour, distance + 1);
+          }
+        }
       }
 
-      // West
-      if (canWalk(lastX - 1, lastY) && get(lastX - 1, lastY) == lastValue - 1) {
-        path.add(new Vector2(lastX - 1, lastY));
+      bucket.clear();
+    }
+  }
 
-        continue;
+  private void push(int index, int distance) {
+    while (buckets.size <= distance) {
+      buckets.add(new IntArray());
+    }
+
+    buckets.get(distance).add(index);
+  }
+
+  private boolean hasSupport(int index, int value) {
+    int cellX = index / height;
+    int cellY = index % height;
+
+    for (int i = 0; i < NEIGHBOUR_X.length; i++) {
+      int neighbour = indexOf(cellX + NEIGHBOUR_X[i], cellY + NEIGHBOUR_Y[i]);
+
+      if (neighbour != -1 && canWalk(neighbour) && graph[neighbour] == value - 1) {
+        return true;
       }
+    }
 
-      // NorthWest
-      if (canWalk(lastX - 1, lastY + 1) && get(lastX - 1, lastY + 1) == lastValue - 1) {
-        path.add(new Vector2(lastX - 1, lastY + 1));
+    return false;
+  }
 
-        continue;
+  private int bestNeighbour(int index) {
+    int cellX = index / height;
+    int cellY = index % height;
+    int best = UNREACHABLE;
+
+    for (int i = 0; i < NEIGHBOUR_X.length; i++) {
+      int neighbour = indexOf(cellX + NEIGHBOUR_X[i], cellY + NEIGHBOUR_Y[i]);
+
+      if (neighbour != -1 && canWalk(neighbour) && graph[neighbour] < best) {
+        best = graph[neighbour];
+      }
+    }
+
+    return best;
+  }
+
+  /**
+   * Go until we find a goal of 0.
+   *
+   * @param start Starting position
+   * @param path  Where to put the path, whatever was in it gets cleared
+   */
+  public void findPath(Vector2 start, Path path) {
+    path.clear();
+    path.add((int) start.x, (int) start.y);
+
+    int lastX = (int) start.x;
+    int lastY = (int) start.y;
+
+    while (true) {
+      int lastValue = get(lastX, lastY);
+
+      // Stop if we've gotten to a goal, or if there's nowhere to go
+      if (lastValue == 0 || lastValue == UNREACHABLE) {
+        break;
+      }
+
+      boolean foundStep = false;
+
+      // North, NorthEast, East, SouthEast, South, SouthWest, West, NorthWest
+      for (int i = 0; i < NEIGHBOUR_X.length; i++) {
+        int nextX = lastX + NEIGHBOUR_X[i];
+        int nextY = lastY + NEIGHBOUR_Y[i];
+
+        if (canWalk(nextX, nextY) && get(nextX, nextY) == lastValue - 1) {
+          path.add(nextX, nextY);
+
+          lastX = nextX;
+          lastY = nextY;
+          foundStep = true;
+
+          break;
+        }
       }
 
       // If we couldn't find a next step, stop
-      buildingPath = false;
+      if (!foundStep) {
+        break;
+      }
+    }
+  }
+
+  Map getMap() {
+    return map;
+  }
+
+  /**
+   * How much memory this map is holding on to, roughly.
+   *
+   * @return Size in bytes
+   */
+  long getSizeInBytes() {
+    return graph.length * 4L + isGoal.length;
+  }
+
+  int get(int cellX, int cellY) {
+    int index = indexOf(cellX, cellY);
+
+    return index == -1 ? UNREACHABLE : graph[index];
+  }
+
+  private int indexOf(int cellX, int cellY) {
+    if (cellX < 0 || cellX >= width || cellY < 0 || cellY >= height) {
+      return -1;
     }
 
-    return path;
+    return cellX * height + cellY;
   }
 
-  private int get(int cellX, int cellY) {
-    return graph[cellX][cellY];
+  private boolean canWalk(int index) {
+    return walkableTypes[map.getTypeId(index)];
   }
 
   private boolean canWalk(int cellX, int cellY) {
-    return cellX > 0 && cellX < cellMap.length
-        && cellY > 0 && cellY < cellMap[0].length
-        && ArrayUtils.contains(walkableTypes, cellMap[cellX][cellY].type);
+    int index = indexOf(cellX, cellY);
+
+    return index != -1 && canWalk(index);
   }
 }
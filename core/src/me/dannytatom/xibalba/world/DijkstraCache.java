@@ -0,0 +1,255 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+public class DijkstraCache {
+  private static final long DEFAULT_BUDGET = 32 * 1024 * 1024;
+
+  private final LinkedHashMap<Key, Entry> entries;
+  private final IdentityMap<Dijkstra, Entry> byDijkstra;
+  private final long budget;
+  private long used = 0;
+  public int hits = 0;
+  public int misses = 0;
+
+  public DijkstraCache() {
+    this(DEFAULT_BUDGET);
+  }
+
+  /**
+   * Shared dijkstra maps, keyed by which map they're on, what they can walk on, and what their
+   * goals are. Anyone asking for the same thing gets the same dijkstra map back.
+   *
+   * <p>Maps nobody is holding on to stick around (for when we come back to a level) until we go
+   * over budget, then the least recently used ones get dropped.
+   *
+   * @param budget How many bytes of dijkstra maps we're allowed to keep around
+   */
+  public DijkstraCache(long budget) {
+    this.entries = new LinkedHashMap<>(16, .75f, true);
+    this.byDijkstra = new IdentityMap<>();
+    this.budget = budget;
+  }
+
+  /**
+   * Get a dijkstra map, building it if nobody has built one yet. Call release when done with it.
+   *
+   * @param map           The level map
+   * @param walkableTypes What can be walked on
+   * @param goals         Where we're going
+   * @return The dijkstra map
+   */
+  Dijkstra acquire(Map map, MapCell.Type[] walkableTypes, Array<Vector2> goals) {
+    Key key = new Key(map, walkableTypes, goals);
+    Entry entry = entries.get(key);
+
+    if (entry == null) {
+      misses += 1;
+
+      entry = new Entry(key, new Dijkstra(map, walkableTypes, goals));
+      add(entry);
+    } else {
+      hits += 1;
+    }
+
+    entry.references += 1;
+
+    return entry.dijkstra;
+  }
+
+  /**
+   * Swap a dijkstra map we're holding for one with different goals. If we're the only one holding
+   * it, its goals get moved in place, otherwise we move a copy's so nobody else sees it change.
+   *
+   * @param dijkstra      The one we're holding
+   * @param walkableTypes What can be walked on
+   * @param goals         Where we're going now
+   * @return The dijkstra map for the new goals
+   */
+  Dijkstra move(Dijkstra dijkstra, MapCell.Type[] walkableTypes, Array<Vector2> goals) {
+    Entry current = byDijkstra.get(dijkstra);
+    Key key = new Key(dijkstra.getMap(), walkableTypes, goals);
+
+    if (current != null && current.key.equals(key)) {
+      return dijkstra;
+    }
+
+    Entry existing = entries.get(key);
+
+    if (existing != null) {
+      hits += 1;
+
+      existing.references += 1;
+      release(dijkstra);
+
+      return existing.dijkstra;
+    }
+
+    misses += 1;
+
+    Dijkstra moved;
+
+    if (current != null && current.references == 1) {
+      remove(current);
+      moved = dijkstra;
+    } else {
+      release(dijkstra);
+      moved = new Dijkstra(dijkstra);
+    }
+
+    moved.moveGoals(goals);
+
+    Entry entry = new Entry(key, moved);
+    entry.references = 1;
+    add(entry);
+
+    return moved;
+  }
+
+  /**
+   * Done with a dijkstra map.
+   *
+   * @param dijkstra The one we were holding
+   */
+  void release(Dijkstra dijkstra) {
+    Entry entry = byDijkstra.get(dijkstra);
+
+    if (entry != null && entry.references > 0) {
+      entry.references -= 1;
+    }
+
+    evict();
+  }
+
+  /**
+   * A cell changed type, repair every dijkstra map on that level.
+   *
+   * @param map   The level map
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   */
+  void cellChanged(Map map, int cellX, int cellY) {
+    for (Entry entry : entries.values()) {
+      if (entry.key.map == map) {
+        entry.dijkstra.cellChanged(cellX, cellY);
+      }
+    }
+  }
+
+  /**
+   * A level got packed away, drop everything built for it. Whoever was holding these went with
+   * the level.
+   *
+   * @param map The level map
+   */
+  void forget(Map map) {
+    Iterator<Entry> iterator = entries.values().iterator();
+
+    while (iterator.hasNext()) {
+      Entry entry = iterator.next();
+
+      if (entry.key.map == map) {
+        iterator.remove();
+        byDijkstra.remove(entry.dijkstra);
+        used -= entry.dijkstra.getSizeInBytes();
+      }
+    }
+  }
+
+  public long getUsedBytes() {
+    return used;
+  }
+
+  private void add(Entry entry) {
+    entries.put(entry.key, entry);
+    byDijkstra.put(entry.dijkstra, entry);
+    used += entry.dijkstra.getSizeInBytes();
+
+    evict();
+  }
+
+  private void remove(Entry entry) {
+    entries.remove(entry.key);
+    byDijkstra.remove(entry.dijkstra);
+    used -= entry.dijkstra.getSizeInBytes();
+  }
+
+  // Least recently used first, skipping anything someone's still holding
+  private void evict() {
+    Iterator<Entry> iterator = entries.values().iterator();
+
+    while (used > budget && iterator.hasNext()) {
+      Entry entry = iterator.next();
+
+      if (entry.references == 0) {
+        iterator.remove();
+        byDijkstra.remove(entry.dijkstra);
+        used -= entry.dijkstra.getSizeInBytes();
+      }
+    }
+  }
+
+  private static class Entry {
+    final Key key;
+    final Dijkstra dijkstra;
+    int references = 0;
+
+    Entry(Key key, Dijkstra dijkstra) {
+      this.key = key;
+      this.dijkstra = dijkstra;
+    }
+  }
+
+  private static class Key {
+    final Map map;
+    final int walkable;
+    final int[] goals;
+    final int hash;
+
+    Key(Map map, MapCell.Type[] walkableTypes, Array<Vector2> goals) {
+      this.map = map;
+
+      int mask = 0;
+
+      for (MapCell.Type type : walkableTypes) {
+        if (type != null) {
+          mask |= 1 << type.ordinal();
+        }
+      }
+
+      this.walkable = mask;
+      this.goals = new int[goals.size];
+
+      for (int i = 0; i < goals.size; i++) {
+        Vector2 goal = goals.get(i);
+        this.goals[i] = (int) goal.x * map.height + (int) goal.y;
+      }
+
+      Arrays.sort(this.goals);
+
+      this.hash = 31 * (31 * System.identityHashCode(map) + walkable) + Arrays.hashCode(this.goals);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+
+      Key key = (Key) other;
+
+      return map == key.map && walkable == key.walkable && Arrays.equals(goals, key.goals);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
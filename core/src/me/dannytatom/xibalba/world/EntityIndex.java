@@ -0,0 +1,146 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import me.dannytatom.xibalba.utils.ComponentMappers;
+
+public class EntityIndex implements EntityListener {
+  private static final Array<Entity> EMPTY = new Array<>(0);
+
+  private final IntMap<Array<Entity>> cells;
+  private final IntMap<Array<Entity>> chunks;
+  private final ObjectIntMap<Entity> keys;
+
+  /**
+   * Which entities are in which cell, so looking up what's at a position doesn't mean going
+   * through every entity in the engine.
+   *
+   * <p>Listens to the engine for anything with a position. The engine only ever holds entities
+   * for the level we're on, so this is always the index for the current map.
+   */
+  public EntityIndex() {
+    cells = new IntMap<>();
+    chunks = new IntMap<>();
+    keys = new ObjectIntMap<>();
+  }
+
+  @Override
+  public void entityAdded(Entity entity) {
+    add(entity);
+  }
+
+  @Override
+  public void entityRemoved(Entity entity) {
+    remove(entity);
+  }
+
+  /**
+   * Entity's position changed, move it to its new cell.
+   *
+   * @param entity The entity that moved
+   */
+  public void update(Entity entity) {
+    if (keys.containsKey(entity)) {
+      remove(entity);
+      add(entity);
+    }
+  }
+
+  /**
+   * Everything in a cell. Don't change the array you get back.
+   *
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   * @return Entities in that cell
+   */
+  public Array<Entity> get(int cellX, int cellY) {
+    Array<Entity> entities = cells.get(key(cellX, cellY));
+
+    return entities == null ? EMPTY : entities;
+  }
+
+  public Array<Entity> get(Vector2 position) {
+    return get((int) position.x, (int) position.y);
+  }
+
+  /**
+   * Everything in a chunk (see Map.CHUNK_SIZE). Don't change the array you get back.
+   *
+   * @param chunkX x of the chunk
+   * @param chunkY y of the chunk
+   * @return Entities in that chunk
+   */
+  public Array<Entity> getChunk(int chunkX, int chunkY) {
+    Array<Entity> entities = chunks.get(key(chunkX, chunkY));
+
+    return entities == null ? EMPTY : entities;
+  }
+
+  private void add(Entity entity) {
+    Vector2 position = ComponentMappers.position.get(entity).pos;
+    int key = key((int) position.x, (int) position.y);
+
+    Array<Entity> entities = cells.get(key);
+
+    if (entities == null) {
+      entities = new Array<>(false, 4);
+      cells.put(key, entities);
+    }
+
+    entities.add(entity);
+    keys.put(entity, key);
+
+    int chunkKey = chunkKey(key);
+    Array<Entity> chunk = chunks.get(chunkKey);
+
+    if (chunk == null) {
+      chunk = new Array<>(false, 16);
+      chunks.put(chunkKey, chunk);
+    }
+
+    chunk.add(entity);
+
+    touch(key);
+  }
+
+  // The position component might already be gone by now, so go by where we filed it
+  private void remove(Entity entity) {
+    int key = keys.remove(entity, Integer.MIN_VALUE);
+
+    if (key != Integer.MIN_VALUE) {
+      Array<Entity> entities = cells.get(key);
+
+      if (entities != null) {
+        entities.removeValue(entity, true);
+      }
+
+      Array<Entity> chunk = chunks.get(chunkKey(key));
+
+      if (chunk != null) {
+        chunk.removeValue(entity, true);
+      }
+
+      touch(key);
+    }
+  }
+
+  // Cells with something on them get drawn differently, so let the map know
+  private static void touch(int key) {
+    if (WorldManager.world != null && WorldManager.world.maps.size() > 0) {
+      WorldManager.world.getCurrentMap().touch(key >> 16, (short) key);
+    }
+  }
+
+  private static int key(int cellX, int cellY) {
+    return (cellX << 16) | (cellY & 0xFFFF);
+  }
+
+  private static int chunkKey(int key) {
+    return key((key >> 16) / Map.CHUNK_SIZE, ((short) key) / Map.CHUNK_SIZE);
+  }
+}
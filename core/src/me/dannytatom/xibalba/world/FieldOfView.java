@@ -0,0 +1,106 @@
+package me.dannytatom.xibalba.world;
+
+import java.util.Arrays;
+
+public class FieldOfView {
+  private float[] values;
+  private int originX;
+  private int originY;
+  private int width;
+  private int height;
+  private int revision = 0;
+
+  /**
+   * Result of a field of view calculation. Instead of covering the whole map it only covers the
+   * square around whoever's looking (or the light source), everything outside it is 0.
+   *
+   * <p>The buffer is reused between calculations, it only grows if the window gets bigger.
+   */
+  public FieldOfView() {
+    this.values = new float[0];
+  }
+
+  /**
+   * How lit/seen a cell is.
+   *
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   * @return 0 if it's not in view, up to 1 if it's right there
+   */
+  public float get(int cellX, int cellY) {
+    int localX = cellX - originX;
+    int localY = cellY - originY;
+
+    if (localX < 0 || localY < 0 || localX >= width || localY >= height) {
+      return 0;
+    }
+
+    return values[localX * height + localY];
+  }
+
+  public int getX() {
+    return originX;
+  }
+
+  public int getY() {
+    return originY;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Goes up every time this gets recalculated, so you can tell if it's changed.
+   *
+   * @return Revision
+   */
+  public int getRevision() {
+    return revision;
+  }
+
+  /**
+   * Move the window somewhere else and clear it.
+   *
+   * @param originX x of the bottom left cell
+   * @param originY y of the bottom left cell
+   * @param width   How many cells across
+   * @param height  How many cells up
+   */
+  void reset(int originX, int originY, int width, int height) {
+    this.originX = originX;
+    this.originY = originY;
+    this.width = width;
+    this.height = height;
+    this.revision += 1;
+
+    if (values.length < width * height) {
+      values = new float[width * height];
+    } else {
+      Arrays.fill(values, 0, width * height, 0);
+    }
+  }
+
+  /**
+   * Cover the whole map and set everything to 1, for when FOV is turned off.
+   *
+   * @param map The map
+   */
+  public void seeEverything(Map map) {
+    reset(0, 0, map.width, map.height);
+    Arrays.fill(values, 0, width * height, 1);
+  }
+
+  void set(int cellX, int cellY, float value) {
+    int localX = cellX - originX;
+    int localY = cellY - originY;
+
+    if (localX >= 0 && localY >= 0 && localX < width && localY < height) {
+      values[localX * height + localY] = value;
+    }
+  }
+}
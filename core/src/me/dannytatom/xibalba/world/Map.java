@@ -1,21 +1,29 @@
 package me.dannytatom.xibalba.world;
 
-import aurelienribon.tweenengine.Tween;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Colors;
-import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Objects;
 
-import me.dannytatom.xibalba.Main;
-import me.dannytatom.xibalba.utils.SpriteAccessor;
-
 public class Map {
+  private static final MapCell.Type[] TYPES = MapCell.Type.values();
+  private static final MapCell.Covered[] COVERINGS = MapCell.Covered.values();
+  private static final int TYPE_MASK = 0x07;
+  private static final int COVERED_SHIFT = 3;
+
+  // Cells are grouped into chunks this many cells across for rendering
+  public static final int CHUNK_SIZE = 16;
+
+  // Descriptions are shared by every map, cells just hold an index into here
+  static final Array<String> descriptions = new Array<>();
+  private static final ObjectIntMap<String> descriptionIds = new ObjectIntMap<>();
+
   public final int width;
   public final int height;
   public final int depth;
@@ -23,15 +31,50 @@ public class Map {
   public final MapCell.Type[][] geometry;
   public final MapDijkstra dijkstra;
   public boolean hasWater = false;
+  // Rain drops per 1000 cells, 0 if it doesn't rain here
+  public float rain = 0;
   public Vector2 entrance;
   public Vector2 exit;
   public MapLight light;
   public MapWeather weather;
-  public ArrayList<MapFire> fires;
-  private MapCell[][] map;
+  public final MapFire fire;
+
+  // Cells by type for picking random ones, made once the map's painted
+  private CellSampler sampler;
+
+  // Each cell is an index (x * height + y) into these. Package private so MapSerializer can get
+  // at them
+  byte[] cells;
+  short[] tiles;
+  short[] cellDescriptions;
+  BitSet hidden;
+  BitSet forgotten;
+  BitSet onFire;
+
+  // 1 if you can't see through it, 0 if you can. Kept up to date as cells change type, with a
+  // revision that goes up each time so lights know to recast
+  private float[][] resistance;
+  private int resistanceRevision = 0;
+
+  // Bumped whenever anything in a chunk changes the way it looks
+  public final int chunksX;
+  public final int chunksY;
+  private final int[] chunkRevisions;
+
+  // What the player could see last time we revealed cells
+  private int revealedX = 0;
+  private int revealedY = 0;
+  private int revealedWidth = 0;
+  private int revealedHeight = 0;
+
+  final Array<MapTile> palette;
+  private final ObjectIntMap<String> paletteIds;
   private MapCell.Type[][] flooded;
   private int floodedCount = 0;
 
+  // Maps get painted on worker threads, so they each get their own random
+  private final RandomXS128 random = new RandomXS128();
+
   /**
    * Holds logic for dealing with maps.
    *
@@ -46,13 +89,31 @@ public class Map {
     this.height = this.geometry[0].length;
 
     this.dijkstra = new MapDijkstra(this);
-    this.fires = new ArrayList<>();
+    this.fire = new MapFire(this);
+
+    this.palette = new Array<>();
+    this.paletteIds = new ObjectIntMap<>();
+
+    this.chunksX = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    this.chunksY = (height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    this.chunkRevisions = new int[chunksX * chunksY];
   }
 
   /**
-   * Turn geometry into a MapCell[][] of real tiles based on map type.
+   * Turn geometry into real tiles based on map type.
    */
   public void paint() {
+    int size = width * height;
+
+    cells = new byte[size];
+    tiles = new short[size];
+    cellDescriptions = new short[size];
+    hidden = new BitSet(size);
+    hidden.set(0, size);
+    forgotten = new BitSet(size);
+    onFire = new BitSet(size);
+    resistance = new float[width][height];
+
     switch (type) {
       case "forest":
         paintForest();
@@ -63,11 +124,11 @@ public class Map {
       default:
         break;
     }
+
+    updateSampler();
   }
 
   private void paintForest() {
-    map = new MapCell[width][height];
-
     Array<String> floorTypes = new Array<>();
     floorTypes.add("0915");
     floorTypes.add("1202");
@@ -75,59 +136,53 @@ public class Map {
     for (int x = 0; x < geometry.length; x++) {
       for (int y = 0; y < geometry[x].length; y++) {
         if (geometry[x][y] == MapCell.Type.FLOOR) {
-          Sprite floor = Main.asciiAtlas.createSprite(floorTypes.random());
-          floor.setColor(Colors.get("forestFloor"));
-          floor.setFlip(MathUtils.randomBoolean(), false);
-
-          map[x][y] = new MapCell(
-              floor, MapCell.Type.FLOOR, "the forest floor"
+          int floor = tile(
+              floorTypes.get(random.nextInt(floorTypes.size)), Colors.get("forestFloor"), null,
+              random.nextBoolean()
           );
+
+          setCell(x, y, MapCell.Type.FLOOR, floor, "the forest floor");
         } else {
-          Sprite wall = Main.asciiAtlas.createSprite("0" + MathUtils.random(5, 6) + "00");
-          Color color = Colors.get("forestTree-" + MathUtils.random(1, 3));
-          wall.setColor(color);
+          int wall = tile(
+              "0" + (5 + random.nextInt(2)) + "00",
+              Colors.get("forestTree-" + (1 + random.nextInt(3))), null, false
+          );
 
-          map[x][y] = new MapCell(wall, MapCell.Type.WALL, "a tree");
+          setCell(x, y, MapCell.Type.WALL, wall, "a tree");
         }
-
-        map[x][y].sprite.setPosition(x * Main.SPRITE_WIDTH, y * Main.SPRITE_HEIGHT);
       }
     }
 
-    if (MathUtils.random() > .5f) {
+    if (random.nextFloat() > .5f) {
       createWater();
       createBridge();
     }
   }
 
   private void paintCave() {
-    map = new MapCell[width][height];
-
     for (int x = 0; x < geometry.length; x++) {
       for (int y = 0; y < geometry[x].length; y++) {
         if (geometry[x][y] == MapCell.Type.FLOOR) {
-          Sprite floor = Main.asciiAtlas.createSprite("0915");
-          Color color = Colors.get("caveFloor-" + +MathUtils.random(1, 3));
-          floor.setColor(color);
-          map[x][y] = new MapCell(floor, MapCell.Type.FLOOR, "a cave floor");
+          int floor = tile(
+              "0915", Colors.get("caveFloor-" + (1 + random.nextInt(3))), null, false
+          );
+
+          setCell(x, y, MapCell.Type.FLOOR, floor, "a cave floor");
         } else {
           int neighbours = getGroundNeighbours(x, y);
 
           if (neighbours > 0) {
-            Sprite wall = Main.asciiAtlas.createSprite("1113");
-            wall.setColor(Colors.get("caveWall"));
-            map[x][y] = new MapCell(wall, MapCell.Type.WALL, "a cave wall");
+            int wall = tile("1113", Colors.get("caveWall"), null, false);
+            setCell(x, y, MapCell.Type.WALL, wall, "a cave wall");
           } else {
-            Sprite nothing = Main.asciiAtlas.createSprite("0000");
-            map[x][y] = new MapCell(nothing, MapCell.Type.NOTHING, "nothing");
+            int nothing = tile("0000", Color.WHITE, null, false);
+            setCell(x, y, MapCell.Type.NOTHING, nothing, "nothing");
           }
         }
-
-        map[x][y].sprite.setPosition(x * Main.SPRITE_WIDTH, y * Main.SPRITE_HEIGHT);
       }
     }
 
-    if (MathUtils.random() > .75f) {
+    if (random.nextFloat() > .75f) {
       createWater();
       createBridge();
     }
@@ -145,18 +200,15 @@ public class Map {
     int floodStartY;
 
     do {
-      floodStartX = MathUtils.random(0, width - 1);
-      floodStartY = MathUtils.random(0, height - 1);
-    } while (!map[floodStartX][floodStartY].isFloor());
+      floodStartX = random.nextInt(width);
+      floodStartY = random.nextInt(height);
+    } while (!isFloor(floodStartX, floodStartY));
 
     flood(floodStartX, floodStartY);
 
     for (int x = 0; x < flooded.length; x++) {
       for (int y = 0; y < flooded[0].length; y++) {
         if (flooded[x][y] == MapCell.Type.FLOOR) {
-          Sprite water = Main.asciiAtlas.createSprite("0715");
-          water.setPosition(x * Main.SPRITE_WIDTH, y * Main.SPRITE_HEIGHT);
-
           MapCell.Type waterType;
           Color lightColor;
           Color darkColor;
@@ -183,12 +235,8 @@ public class Map {
             );
           }
 
-          water.setColor(lightColor);
-          Tween tween = Tween.to(water, SpriteAccessor.COLOR, .5f).target(
-              darkColor.r, darkColor.g, darkColor.b
-          ).repeatYoyo(Tween.INFINITY, MathUtils.random());
-
-          map[x][y] = new MapCell(water, waterType, "water", tween);
+          // The color fading back and forth is worked out when the cell's drawn
+          setCell(x, y, waterType, tile("0715", lightColor, darkColor, false), "water");
         }
       }
     }
@@ -197,20 +245,17 @@ public class Map {
   // Find the largest section of water with land on both sides
   // Connect it with a bridge
   private void createBridge() {
-    Sprite bridge = Main.asciiAtlas.createSprite("0302");
     Vector2 start = null;
     int length = 0;
 
-    for (int x = 0; x < map.length; x++) {
-      for (int y = 0; y < map[x].length; y++) {
-        MapCell cell = map[x][y];
-
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
         // Found water tile, go up until no more water.
         // Store start position and the length.
-        if (cell.isWater()) {
+        if (isWater(x, y)) {
           int count = 0;
 
-          while (map[x][y + count].isWater()) {
+          while (isWater(x, y + count)) {
             count++;
           }
 
@@ -222,28 +267,335 @@ public class Map {
       }
     }
 
+    // Still painting, possibly on a worker thread, so the cells are written straight in. Nothing
+    // else knows about this map yet, setType would go telling the shared Dijkstra cache
     if (start != null) {
+      int bridge = tile("0302", Colors.get("bridge"), null, false);
+
       for (int y = 0; y < length; y++) {
-        makeCellBridge(map[(int) start.x][(int) start.y + y], bridge);
+        setCell((int) start.x, (int) start.y + y, MapCell.Type.FLOOR, bridge, "a bridge");
+      }
+    }
+  }
+
+  /**
+   * Get the id of a tile in this map's palette, adding it if it's not there yet.
+   *
+   * @param region    Atlas region
+   * @param color     Tint
+   * @param animateTo Color to fade to and from, null if it doesn't animate
+   * @param flipped   Flip horizontally
+   * @return The tile id
+   */
+  public int tile(String region, Color color, Color animateTo, boolean flipped) {
+    String key = MapTile.key(region, color, animateTo, flipped);
+    int id = paletteIds.get(key, -1);
+
+    if (id == -1) {
+      id = palette.size;
+
+      palette.add(new MapTile(region, color, animateTo, flipped));
+      paletteIds.put(key, id);
+    }
+
+    return id;
+  }
+
+  static synchronized String description(int id) {
+    return descriptions.get(id);
+  }
+
+  static synchronized int describe(String description) {
+    int id = descriptionIds.get(description, -1);
+
+    if (id == -1) {
+      id = descriptions.size;
+
+      descriptions.add(description);
+      descriptionIds.put(description, id);
+    }
+
+    return id;
+  }
+
+  private void setCell(int cellX, int cellY, MapCell.Type type, int tile, String description) {
+    int index = indexOf(cellX, cellY);
+
+    cells[index] = (byte) type.ordinal();
+    tiles[index] = (short) tile;
+    cellDescriptions[index] = (short) describe(description);
+    resistance[cellX][cellY] = isOpaque(cellX, cellY) ? 1 : 0;
+  }
+
+  // Work out the resistance map from scratch, for after the cells have been loaded in
+  void updateResistance() {
+    resistance = new float[width][height];
+
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        resistance[x][y] = isOpaque(x, y) ? 1 : 0;
       }
     }
+
+    resistanceRevision += 1;
   }
 
-  private void makeCellBridge(MapCell cell, Sprite bridge) {
-    cell.sprite.setRegion(
-        bridge.getRegionX(), bridge.getRegionY(),
-        bridge.getRegionWidth(), bridge.getRegionHeight()
-    );
+  // List every cell by type from scratch, for after painting or loading
+  void updateSampler() {
+    sampler = new CellSampler(this);
+  }
+
+  public CellSampler getSampler() {
+    return sampler;
+  }
 
-    cell.sprite.setColor(Colors.get("bridge"));
-    cell.type = MapCell.Type.FLOOR;
-    cell.description = "a bridge";
+  public int indexOf(int cellX, int cellY) {
+    return cellX * height + cellY;
+  }
+
+  public boolean contains(int cellX, int cellY) {
+    return cellX >= 0 && cellY >= 0 && cellX < width && cellY < height;
+  }
+
+  public MapCell getCell(int cellX, int cellY) {
+    return new MapCell(this, cellX, cellY);
+  }
+
+  /**
+   * Ordinal of the cell's type, for tight loops that don't want to go through the enum.
+   *
+   * @param index Cell index
+   * @return Type ordinal
+   */
+  public int getTypeId(int index) {
+    return cells[index] & TYPE_MASK;
+  }
+
+  public MapCell.Type getType(int index) {
+    return TYPES[cells[index] & TYPE_MASK];
+  }
+
+  public MapCell.Type getType(int cellX, int cellY) {
+    return getType(indexOf(cellX, cellY));
+  }
+
+  /**
+   * Change a cell's type, and let everything built on top of the map know.
+   *
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   * @param type  The new type
+   */
+  public void setType(int cellX, int cellY, MapCell.Type type) {
+    int index = indexOf(cellX, cellY);
+
+    if (sampler != null) {
+      sampler.changed(index, getType(index), type);
+    }
+
+    cells[index] = (byte) ((cells[index] & ~TYPE_MASK) | type.ordinal());
+    resistance[cellX][cellY] = isOpaque(cellX, cellY) ? 1 : 0;
+    resistanceRevision += 1;
+
+    touch(cellX, cellY);
+
+    dijkstra.cellChanged(cellX, cellY);
+  }
+
+  public MapCell.Covered getCovered(int index) {
+    return COVERINGS[cells[index] >> COVERED_SHIFT];
+  }
+
+  public void setCovered(int cellX, int cellY, MapCell.Covered covered) {
+    int index = indexOf(cellX, cellY);
+
+    cells[index] = (byte) ((cells[index] & TYPE_MASK) | (covered.ordinal() << COVERED_SHIFT));
+
+    touch(cellX, cellY);
+  }
 
-    cell.tween.kill();
+  public String getDescription(int index) {
+    // Maps being painted in the background add to the table while we read it
+    return description(cellDescriptions[index]);
+  }
+
+  public void setDescription(int cellX, int cellY, String description) {
+    cellDescriptions[indexOf(cellX, cellY)] = (short) describe(description);
+  }
+
+  public MapTile getTile(int index) {
+    return palette.get(tiles[index]);
+  }
+
+  public void setTile(int cellX, int cellY, int tile) {
+    tiles[indexOf(cellX, cellY)] = (short) tile;
+
+    touch(cellX, cellY);
+  }
+
+  /**
+   * Color to draw a cell in, taking whatever's covering it into account. Animated tiles just get
+   * their base color, the renderer handles fading them.
+   *
+   * @param index Cell index
+   * @return The color
+   */
+  public Color getColor(int index) {
+    MapTile tile = getTile(index);
+
+    if (tile.isAnimated() || isOnFire(index)) {
+      return tile.color;
+    }
+
+    switch (getCovered(index)) {
+      case WATER:
+        return Colors.get(type + "FloorWet");
+      case BLOOD:
+        return Colors.get("RED");
+      case VOMIT:
+        return Colors.get("YELLOW");
+      default:
+        return tile.color;
+    }
+  }
+
+  public boolean isHidden(int index) {
+    return hidden.get(index);
+  }
+
+  public boolean isHidden(int cellX, int cellY) {
+    return hidden.get(indexOf(cellX, cellY));
+  }
+
+  public void setHidden(int index, boolean value) {
+    if (hidden.get(index) != value) {
+      hidden.set(index, value);
+      touch(index / height, index % height);
+    }
+  }
+
+  public boolean isForgotten(int index) {
+    return forgotten.get(index);
+  }
+
+  public boolean isForgotten(int cellX, int cellY) {
+    return forgotten.get(indexOf(cellX, cellY));
+  }
+
+  public void setForgotten(int index, boolean value) {
+    if (forgotten.get(index) != value) {
+      forgotten.set(index, value);
+      touch(index / height, index % height);
+    }
+  }
+
+  public boolean isOnFire(int index) {
+    return onFire.get(index);
+  }
+
+  public void setOnFire(int cellX, int cellY, boolean value) {
+    onFire.set(indexOf(cellX, cellY), value);
+
+    touch(cellX, cellY);
+  }
+
+  /**
+   * Mark cells the player can see as seen, and cells they could see last time but can't anymore
+   * as forgotten. Only goes over cells in the old and new vision, not the whole map.
+   *
+   * @param vision The player's vision
+   */
+  public void reveal(FieldOfView vision) {
+    for (int x = revealedX; x < revealedX + revealedWidth; x++) {
+      for (int y = revealedY; y < revealedY + revealedHeight; y++) {
+        int index = indexOf(x, y);
+
+        if (!hidden.get(index)) {
+          setForgotten(index, true);
+        }
+      }
+    }
+
+    revealedX = Math.max(vision.getX(), 0);
+    revealedY = Math.max(vision.getY(), 0);
+    revealedWidth = Math.min(vision.getX() + vision.getWidth(), width) - revealedX;
+    revealedHeight = Math.min(vision.getY() + vision.getHeight(), height) - revealedY;
+
+    for (int x = revealedX; x < revealedX + revealedWidth; x++) {
+      for (int y = revealedY; y < revealedY + revealedHeight; y++) {
+        if (vision.get(x, y) > 0) {
+          int index = indexOf(x, y);
+
+          setHidden(index, false);
+          setForgotten(index, false);
+        }
+      }
+    }
+  }
+
+  /**
+   * Something about this cell changed how it looks.
+   *
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   */
+  public void touch(int cellX, int cellY) {
+    if (contains(cellX, cellY)) {
+      chunkRevisions[(cellX / CHUNK_SIZE) * chunksY + cellY / CHUNK_SIZE] += 1;
+    }
+  }
+
+  public int getChunkRevision(int chunkX, int chunkY) {
+    return chunkRevisions[chunkX * chunksY + chunkY];
+  }
+
+  public boolean isFloor(int cellX, int cellY) {
+    return getType(cellX, cellY) == MapCell.Type.FLOOR;
+  }
+
+  public boolean isWall(int cellX, int cellY) {
+    return getType(cellX, cellY) == MapCell.Type.WALL;
+  }
+
+  public boolean isNothing(int cellX, int cellY) {
+    return getType(cellX, cellY) == MapCell.Type.NOTHING;
+  }
+
+  public boolean isWater(int cellX, int cellY) {
+    MapCell.Type cellType = getType(cellX, cellY);
+
+    return cellType == MapCell.Type.SHALLOW_WATER || cellType == MapCell.Type.DEEP_WATER;
+  }
+
+  public boolean isDeepWater(int cellX, int cellY) {
+    return getType(cellX, cellY) == MapCell.Type.DEEP_WATER;
+  }
+
+  /**
+   * Whether or not you can see through this cell.
+   *
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   * @return Yes/no
+   */
+  public boolean isOpaque(int cellX, int cellY) {
+    MapCell.Type cellType = getType(cellX, cellY);
+
+    return cellType == MapCell.Type.WALL || cellType == MapCell.Type.NOTHING;
+  }
+
+  /**
+   * Resistance map for field of view, 1 is blocked and 0 is not. This is the map's own copy and
+   * is shared by everyone calculating FOV on it, so don't write to it.
+   *
+   * @return Resistance map
+   */
+  public float[][] getResistanceMap() {
+    return resistance;
   }
 
-  public MapCell[][] getCellMap() {
-    return map;
+  public int getResistanceRevision() {
+    return resistanceRevision;
   }
 
   private int getGroundNeighbours(int cellX, int cellY) {
@@ -276,7 +628,7 @@ public class Map {
       return;
     }
 
-    if (floodedCount >= MathUtils.random(100, 300)) {
+    if (floodedCount >= 100 + random.nextInt(201)) {
       return;
     }
 
@@ -1,59 +1,74 @@
 package me.dannytatom.xibalba.world;
 
-import aurelienribon.tweenengine.Tween;
-import com.badlogic.gdx.graphics.g2d.Sprite;
-
 public class MapCell {
-  public final Sprite sprite;
-  public Tween tween;
-  public String description;
-  public Type type;
-  public Covered covered;
-  public boolean hidden = true;
-  public boolean forgotten = false;
-  public boolean onFire = false;
+  private final Map map;
+  private final int index;
 
   /**
-   * Holds world cell data.
+   * A view of a single cell, the data itself lives in the Map's grid.
+   *
+   * <p>Fine for one-off lookups, anything looping over the whole map should use the Map's
+   * accessors directly instead.
    *
-   * @param sprite      tile sprite
-   * @param type        whether or not an entity can move onto this cell
-   * @param description what this cell like?
+   * @param map   The map the cell is on
+   * @param cellX x of the cell
+   * @param cellY y of the cell
    */
-  MapCell(Sprite sprite, Type type, String description, Tween tween) {
-    this.sprite = sprite;
-    this.type = type;
-    this.covered = Covered.NOTHING;
-    this.description = description;
-    this.tween = tween;
+  MapCell(Map map, int cellX, int cellY) {
+    this.map = map;
+    this.index = map.indexOf(cellX, cellY);
+  }
+
+  public Type getType() {
+    return map.getType(index);
+  }
+
+  public Covered getCovered() {
+    return map.getCovered(index);
+  }
+
+  public String getDescription() {
+    return map.getDescription(index);
+  }
+
+  public MapTile getTile() {
+    return map.getTile(index);
+  }
+
+  public boolean isHidden() {
+    return map.isHidden(index);
+  }
+
+  public boolean isForgotten() {
+    return map.isForgotten(index);
   }
 
-  MapCell(Sprite sprite, Type type, String description) {
-    this(sprite, type, description, null);
+  public boolean isOnFire() {
+    return map.isOnFire(index);
   }
 
   public boolean isNothing() {
-    return type == Type.NOTHING;
+    return getType() == Type.NOTHING;
   }
 
   public boolean isFloor() {
-    return type == Type.FLOOR;
+    return getType() == Type.FLOOR;
   }
 
   public boolean isWall() {
-    return type == Type.WALL;
+    return getType() == Type.WALL;
   }
 
   public boolean isWater() {
-    return type == Type.SHALLOW_WATER || type == Type.DEEP_WATER;
+    return getType() == Type.SHALLOW_WATER || getType() == Type.DEEP_WATER;
   }
 
   public boolean isDeepWater() {
-    return type == Type.DEEP_WATER;
+    return getType() == Type.DEEP_WATER;
   }
 
   public boolean hasBlood() {
-    return covered == Covered.BLOOD;
+    return getCovered() == Covered.BLOOD;
   }
 
   public enum Type {
@@ -7,6 +7,16 @@ import com.badlogic.gdx.utils.Array;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 
 public class MapDijkstra {
+  private static final MapCell.Type[] LAND = {
+      MapCell.Type.FLOOR, MapCell.Type.SHALLOW_WATER
+  };
+  private static final MapCell.Type[] WANDER_WATER = {
+      null, MapCell.Type.DEEP_WATER
+  };
+  private static final MapCell.Type[] WATER = {
+      MapCell.Type.DEEP_WATER, MapCell.Type.SHALLOW_WATER
+  };
+
   private final Dijkstra[] wanderLand = new Dijkstra[5];
   private final Dijkstra[] wanderWater = new Dijkstra[3];
   private final Map map;
@@ -14,6 +24,8 @@ public class MapDijkstra {
   private Dijkstra targetPlayerLand;
   private Dijkstra targetPlayerWater;
   private Dijkstra playerExplore;
+  public long lastUpdateTime = 0;
+  public int lastCellsVisited = 0;
 
   public MapDijkstra(Map map) {
     this.map = map;
@@ -21,6 +33,9 @@ public class MapDijkstra {
 
   /**
    * Update all djikstra maps.
+   *
+   * <p>Wander maps are only built the first time, after that they come back out of
+   * WorldManager.dijkstraCache along with this map, so revisiting a level doesn't rebuild them.
    */
   public void updateAll() {
     updateWanderLand();
@@ -35,14 +50,12 @@ public class MapDijkstra {
    */
   private void updateWanderLand() {
     for (int i = 0; i < wanderLand.length; i++) {
-      Array<Vector2> goal = new Array<>();
-      goal.add(WorldManager.mapHelpers.getRandomOpenPositionOnLand(map.depth));
-
-      MapCell.Type[] walkableTypes = new MapCell.Type[2];
-      walkableTypes[0] = MapCell.Type.FLOOR;
-      walkableTypes[1] = MapCell.Type.SHALLOW_WATER;
+      if (wanderLand[i] == null) {
+        Array<Vector2> goal = new Array<>();
+        goal.add(WorldManager.mapHelpers.getRandomOpenPositionOnLand(map.depth));
 
-      wanderLand[i] = new Dijkstra(map, walkableTypes, goal);
+        wanderLand[i] = WorldManager.dijkstraCache.acquire(map, LAND, goal);
+      }
     }
   }
 
@@ -50,10 +63,10 @@ public class MapDijkstra {
    * Find a wandering path on land.
    *
    * @param start Starting position
-   * @return A path
+   * @param path  Where to put it
    */
-  public Array<Vector2> findWanderLandPath(Vector2 start) {
-    return wanderLand[MathUtils.random(0, wanderLand.length - 1)].findPath(start);
+  public void findWanderLandPath(Vector2 start, Path path) {
+    wanderLand[MathUtils.random(0, wanderLand.length - 1)].findPath(start, path);
   }
 
   /**
@@ -62,13 +75,12 @@ public class MapDijkstra {
   private void updateWanderWater() {
     if (map.hasWater) {
       for (int i = 0; i < wanderWater.length; i++) {
-        Array<Vector2> goal = new Array<>();
-        goal.add(WorldManager.mapHelpers.getRandomOpenPositionInWater(map.depth));
+        if (wanderWater[i] == null) {
+          Array<Vector2> goal = new Array<>();
+          goal.add(WorldManager.mapHelpers.getRandomOpenPositionInWater(map.depth));
 
-        MapCell.Type[] walkableTypes = new MapCell.Type[2];
-        walkableTypes[1] = MapCell.Type.DEEP_WATER;
-
-        wanderWater[i] = new Dijkstra(map, walkableTypes, goal);
+          wanderWater[i] = WorldManager.dijkstraCache.acquire(map, WANDER_WATER, goal);
+        }
       }
     }
   }
@@ -77,37 +89,40 @@ public class MapDijkstra {
    * Find a wandering path in water.
    *
    * @param start Starting position
-   * @return A path
+   * @param path  Where to put it, left empty if there's no water
    */
-  public Array<Vector2> findWanderWaterPath(Vector2 start) {
+  public void findWanderWaterPath(Vector2 start, Path path) {
     if (map.hasWater) {
-      return wanderWater[MathUtils.random(0, wanderWater.length - 1)].findPath(start);
+      wanderWater[MathUtils.random(0, wanderWater.length - 1)].findPath(start, path);
     } else {
-      return null;
+      path.clear();
     }
   }
 
-  public Array<Vector2> findExplorePath(Vector2 start) {
-    return playerExplore.findPath(start);
+  public void findExplorePath(Vector2 start, Path path) {
+    playerExplore.findPath(start, path);
   }
 
   /**
-   * Update targetPlayerLand map.
+   * Update targetPlayerLand map. Its one goal moves whenever the player does, so this is a full
+   * rebuild every step, not a repair. Same goes for targetPlayerWater.
    */
   public void updateTargetPlayerLand() {
     Vector2 position = ComponentMappers.position.get(WorldManager.player).pos;
     Array<Vector2> goals = new Array<>();
     goals.add(position);
 
-    MapCell.Type[] walkableTypes = new MapCell.Type[2];
-    walkableTypes[0] = MapCell.Type.FLOOR;
-    walkableTypes[1] = MapCell.Type.SHALLOW_WATER;
+    if (targetPlayerLand == null) {
+      targetPlayerLand = WorldManager.dijkstraCache.acquire(map, LAND, goals);
+    } else {
+      targetPlayerLand = WorldManager.dijkstraCache.move(targetPlayerLand, LAND, goals);
+    }
 
-    targetPlayerLand = new Dijkstra(map, walkableTypes, goals);
+    recordStats(targetPlayerLand);
   }
 
-  public Array<Vector2> findTargetPlayerLandPath(Vector2 start) {
-    return targetPlayerLand.findPath(start);
+  public void findTargetPlayerLandPath(Vector2 start, Path path) {
+    targetPlayerLand.findPath(start, path);
   }
 
   /**
@@ -118,15 +133,15 @@ public class MapDijkstra {
     Array<Vector2> goals = new Array<>();
     goals.add(position);
 
-    MapCell.Type[] walkableTypes = new MapCell.Type[2];
-    walkableTypes[0] = MapCell.Type.DEEP_WATER;
-    walkableTypes[1] = MapCell.Type.SHALLOW_WATER;
-
-    targetPlayerWater = new Dijkstra(map, walkableTypes, goals);
+    if (targetPlayerWater == null) {
+      targetPlayerWater = WorldManager.dijkstraCache.acquire(map, WATER, goals);
+    } else {
+      targetPlayerWater = WorldManager.dijkstraCache.move(targetPlayerWater, WATER, goals);
+    }
   }
 
-  public Array<Vector2> findTargetPlayerWaterPath(Vector2 start) {
-    return targetPlayerWater.findPath(start);
+  public void findTargetPlayerWaterPath(Vector2 start, Path path) {
+    targetPlayerWater.findPath(start, path);
   }
 
   /**
@@ -137,16 +152,33 @@ public class MapDijkstra {
 
     for (int x = 0; x < map.width; x++) {
       for (int y = 0; y < map.height; y++) {
-        if (map.getCellMap()[x][y].hidden && map.getCellMap()[x][y].isFloor()) {
+        if (map.isHidden(x, y) && map.isFloor(x, y)) {
           exploreGoals.add(new Vector2(x, y));
         }
       }
     }
 
-    MapCell.Type[] walkableTypes = new MapCell.Type[2];
-    walkableTypes[0] = MapCell.Type.FLOOR;
-    walkableTypes[1] = MapCell.Type.SHALLOW_WATER;
+    if (playerExplore == null) {
+      playerExplore = WorldManager.dijkstraCache.acquire(map, LAND, exploreGoals);
+    } else {
+      playerExplore = WorldManager.dijkstraCache.move(playerExplore, LAND, exploreGoals);
+    }
+  }
+
+  /**
+   * A cell on the map changed type, repair every dijkstra map built for this level.
+   *
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   */
+  public void cellChanged(int cellX, int cellY) {
+    if (WorldManager.dijkstraCache != null) {
+      WorldManager.dijkstraCache.cellChanged(map, cellX, cellY);
+    }
+  }
 
-    playerExplore = new Dijkstra(map, walkableTypes, exploreGoals);
+  private void recordStats(Dijkstra dijkstra) {
+    lastUpdateTime = dijkstra.lastUpdateTime;
+    lastCellsVisited = dijkstra.lastCellsVisited;
   }
 }
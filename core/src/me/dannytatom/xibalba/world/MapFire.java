@@ -1,109 +1,185 @@
 package me.dannytatom.xibalba.world;
 
-import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Colors;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-
-import me.dannytatom.xibalba.Main;
-import me.dannytatom.xibalba.components.LightComponent;
-import me.dannytatom.xibalba.components.PositionComponent;
+import java.util.BitSet;
 
 public class MapFire {
-  private Map map;
-  private MapCell.Type[][] flooded;
-  private int floodedCount = 0;
-  private int lastX;
-  private int lastY;
+  // Chance each turn of a burning cell catching each of its neighbours
+  private static final float SPREAD_CHANCE = .25f;
+
+  private final Map map;
   private float animCounter = 0;
 
+  // Burning cells & how many turns each has left, package private so MapSerializer can get at them
+  final IntArray burning;
+  final IntArray fuel;
+  BitSet burnt;
+  int budget = 0;
+
+  // Every look a burning cell can have, from the map's palette. Worked out the first time we need
+  // them, the palette isn't filled in till the map's painted
+  private int[] fireTiles;
+  private int ashTile = -1;
+
   /**
-   * Handles a single fire on the map.
+   * Every fire on a map. Only cells that are burning right now get looked at, each turn they
+   * might set their neighbours alight and burn down a little, until they're ash.
    *
-   * @param mapIndex         The map
-   * @param startingPosition The starting position
+   * @param map The map
    */
-  public MapFire(int mapIndex, Vector2 startingPosition) {
-    map = WorldManager.world.getMap(mapIndex);
-    flooded = new MapCell.Type[map.width][map.height];
-    lastX = Math.round(startingPosition.x);
-    lastY = Math.round(startingPosition.y);
-
-    for (MapCell.Type[] row : flooded) {
-      Arrays.fill(row, MapCell.Type.WALL);
-    }
+  MapFire(Map map) {
+    this.map = map;
+    this.burning = new IntArray();
+    this.fuel = new IntArray();
+    this.burnt = new BitSet();
+  }
+
+  public boolean isBurning() {
+    return burning.size > 0;
+  }
+
+  public int getBurningCount() {
+    return burning.size;
+  }
 
-    flood(Math.round(startingPosition.x), Math.round(startingPosition.y));
+  public int getBurning(int index) {
+    return burning.get(index);
+  }
+
+  /**
+   * Light a fire. Every fire we start lets the whole thing spread a bit further.
+   *
+   * @param cellX x of where it starts
+   * @param cellY y of where it starts
+   */
+  public void start(int cellX, int cellY) {
+    budget += MathUtils.random(100, 300);
+
+    if (map.contains(cellX, cellY)) {
+      ignite(map.indexOf(cellX, cellY));
+    }
   }
 
   /**
    * Update FIRES.
    *
    * @param delta Time since last frame
-   * @param flood Keep spreading?
+   * @param turn  Whether a turn's being taken
    */
-  public void update(float delta, boolean flood) {
-    animCounter += delta;
+  public void update(float delta, boolean turn) {
+    if (burning.size == 0) {
+      return;
+    }
 
-    if (floodedCount < MathUtils.random(100, 300)) {
-      if (flood) {
-        flood(lastX + MathUtils.random(0, 2), lastY);
-        flood(lastX - MathUtils.random(0, 2), lastY);
-        flood(lastX, lastY + MathUtils.random(0, 2));
-        flood(lastX, lastY - MathUtils.random(0, 2));
-      }
+    if (turn) {
+      spread();
+      burnDown();
     }
 
+    animCounter += delta;
+
     if (animCounter >= .5f) {
       animCounter = 0;
 
-      for (int x = 0; x < flooded.length; x++) {
-        for (int y = 0; y < flooded[0].length; y++) {
-          if (flooded[x][y] == MapCell.Type.FLOOR) {
-            MapCell cell = map.getCellMap()[x][y];
-            cell.description = "fire";
-
-            String spriteKey = MathUtils.random() > 0.5 ? "1405" : "1407";
-            Sprite sprite = Main.asciiAtlas.createSprite(spriteKey);
-            sprite.setColor(Colors.get("fire-" + MathUtils.random(1, 3)));
-            cell.sprite.set(sprite);
-            cell.sprite.setPosition(x * Main.SPRITE_WIDTH, y * Main.SPRITE_HEIGHT);
-
-            if (!cell.onFire) {
-              ArrayList<Color> fireColors = new ArrayList<>();
-              fireColors.add(Colors.get("fire-1"));
-              fireColors.add(Colors.get("fire-2"));
-              fireColors.add(Colors.get("fire-3"));
-
-              Entity fireLight = new Entity();
-              fireLight.add(
-                  new LightComponent(MathUtils.random(1, 3), true, fireColors)
-              );
-              fireLight.add(new PositionComponent(x, y));
-              WorldManager.world.addEntity(fireLight);
-            }
-
-            cell.onFire = true;
-          }
-        }
+      for (int i = 0; i < burning.size; i++) {
+        int index = burning.get(i);
+        map.setTile(index / map.height, index % map.height, getFireTile());
       }
     }
   }
 
-  private void flood(int cellX, int cellY) {
-    if (map.geometry.length > cellX && map.geometry[cellX].length > cellY
-        && map.geometry[cellX][cellY] == MapCell.Type.FLOOR
-        && flooded[cellX][cellY] == MapCell.Type.WALL) {
-      flooded[cellX][cellY] = MapCell.Type.FLOOR;
-      floodedCount += 1;
+  // Only what was burning at the start of the turn spreads, new fires wait till next turn
+  private void spread() {
+    int size = burning.size;
+
+    for (int i = 0; i < size && budget > 0; i++) {
+      int index = burning.get(i);
+      int cellX = index / map.height;
+      int cellY = index % map.height;
+
+      trySpread(cellX - 1, cellY);
+      trySpread(cellX + 1, cellY);
+      trySpread(cellX, cellY - 1);
+      trySpread(cellX, cellY + 1);
+    }
+  }
 
-      lastX = cellX;
-      lastY = cellY;
+  private void trySpread(int cellX, int cellY) {
+    if (budget > 0 && map.contains(cellX, cellY) && MathUtils.random() < SPREAD_CHANCE) {
+      ignite(map.indexOf(cellX, cellY));
     }
   }
+
+  // Going backwards so cells swapped in from the end have already been done (or just caught)
+  private void burnDown() {
+    for (int i = burning.size - 1; i >= 0; i--) {
+      int left = fuel.get(i) - 1;
+
+      if (left > 0) {
+        fuel.set(i, left);
+        continue;
+      }
+
+      int index = burning.get(i);
+
+      burning.set(i, burning.peek());
+      fuel.set(i, fuel.peek());
+      burning.pop();
+      fuel.pop();
+
+      burnOut(index);
+    }
+  }
+
+  private void ignite(int index) {
+    if (map.getType(index) != MapCell.Type.FLOOR || map.isOnFire(index) || burnt.get(index)
+        || map.getCovered(index) == MapCell.Covered.WATER) {
+      return;
+    }
+
+    int cellX = index / map.height;
+    int cellY = index % map.height;
+
+    burning.add(index);
+    fuel.add(MathUtils.random(4, 8));
+    budget -= 1;
+
+    map.setOnFire(cellX, cellY, true);
+    map.setDescription(cellX, cellY, "fire");
+    map.setTile(cellX, cellY, getFireTile());
+  }
+
+  private void burnOut(int index) {
+    int cellX = index / map.height;
+    int cellY = index % map.height;
+
+    burnt.set(index);
+
+    if (ashTile == -1) {
+      ashTile = map.tile("0915", Colors.get("DARK_GRAY"), null, false);
+    }
+
+    map.setOnFire(cellX, cellY, false);
+    map.setDescription(cellX, cellY, "ash");
+    map.setTile(cellX, cellY, ashTile);
+  }
+
+  private int getFireTile() {
+    if (fireTiles == null) {
+      fireTiles = new int[6];
+
+      for (int i = 0; i < 3; i++) {
+        Color color = Colors.get("fire-" + (i + 1));
+
+        fireTiles[i * 2] = map.tile("1405", color, null, false);
+        fireTiles[i * 2 + 1] = map.tile("1407", color, null, false);
+      }
+    }
+
+    return fireTiles[MathUtils.random(fireTiles.length - 1)];
+  }
 }
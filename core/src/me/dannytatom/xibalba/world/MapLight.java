@@ -4,7 +4,9 @@ import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Colors;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.ObjectMap;
 
 import java.util.Arrays;
 
@@ -13,37 +15,99 @@ import me.dannytatom.xibalba.components.PositionComponent;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 
 public class MapLight {
+  private static final int BLACK = Color.rgba8888(Color.BLACK);
+
   private final int mapIndex;
   private final ShadowCaster caster;
+  private final FieldOfView lit;
   private final Family family;
-  public float[][] lightMap;
-  public Color[][] colorMap;
+  private final Color mixed;
   private float counter = 0;
 
+  // Each cell is x * height + y. How much light is on it, plus the light's color times that, so
+  // lights overlapping mix instead of whoever went last winning. Made the first time we update,
+  // so levels the player isn't on don't carry them around
+  private int height;
+  private float[] staticLight;
+  private float[] staticColor;
+  private float[] dynamicLight;
+  private float[] dynamicColor;
+
+  // Lights that don't flicker, with what they lit last time so it can be taken back out
+  private final ObjectMap<Entity, StaticLight> staticLights;
+  private int resistanceRevision = -1;
+  private int pass = 0;
+
+  // Everywhere the flickering lights & fire reached last time, cleared before they're recast
+  private int dirtyMinX;
+  private int dirtyMinY;
+  private int dirtyMaxX = -1;
+  private int dirtyMaxY = -1;
+
   /**
    * Handles light sources on the map.
    *
+   * <p>Lights that stay put and don't flicker are cast once and kept, until they move or the map
+   * changes shape. Only flickering lights & fire get recast every update, and only into the part
+   * of the map they lit last time.
+   *
    * @param mapIndex The map
    */
   public MapLight(int mapIndex) {
     this.mapIndex = mapIndex;
     this.caster = new ShadowCaster();
+    this.lit = new FieldOfView();
     this.family = Family.all(LightComponent.class, PositionComponent.class).get();
+    this.mixed = new Color();
+    this.staticLights = new ObjectMap<>();
+  }
 
-    Map map = WorldManager.world.getMap(mapIndex);
-    this.lightMap = new float[map.width][map.height];
-    for (float[] row : lightMap) {
-      Arrays.fill(row, 0f);
-    }
+  public boolean hasLights() {
+    return WorldManager.engine.getEntitiesFor(family).size() > 0
+        || WorldManager.world.getMap(mapIndex).fire.isBurning();
+  }
 
-    this.colorMap = new Color[map.width][map.height];
-    for (Color[] row : colorMap) {
-      Arrays.fill(row, Color.BLACK);
+  /**
+   * How much light is on a cell.
+   *
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   * @return 0 for none, adds up where lights overlap
+   */
+  public float getLight(int cellX, int cellY) {
+    if (staticLight == null) {
+      return 0;
     }
+
+    int index = cellX * height + cellY;
+
+    return Math.max(staticLight[index] + dynamicLight[index], 0);
   }
 
-  public boolean hasLights() {
-    return WorldManager.engine.getEntitiesFor(family).size() > 0;
+  /**
+   * Color of the light on a cell, every light on it mixed by how much each lights it.
+   *
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   * @return Color as rgba8888, black if it's not lit
+   */
+  public int getColor(int cellX, int cellY) {
+    float light = getLight(cellX, cellY);
+
+    if (light <= 0) {
+      return BLACK;
+    }
+
+    int index = (cellX * height + cellY) * 3;
+
+    mixed.set(
+        (staticColor[index] + dynamicColor[index]) / light,
+        (staticColor[index + 1] + dynamicColor[index + 1]) / light,
+        (staticColor[index + 2] + dynamicColor[index + 2]) / light,
+        1
+    );
+
+    return Color.rgba8888(mixed.clamp());
   }
 
   /**
@@ -54,43 +118,161 @@ public class MapLight {
   public void update(float delta) {
     counter += delta;
 
-    float[][] fovMap = WorldManager.mapHelpers.createFovMapFor(mapIndex);
+    if (counter < .10f) {
+      return;
+    }
+
+    counter = 0;
+
+    Map map = WorldManager.world.getMap(mapIndex);
+
+    if (staticLight == null) {
+      height = map.height;
+      staticLight = new float[map.width * map.height];
+      staticColor = new float[map.width * map.height * 3];
+      dynamicLight = new float[map.width * map.height];
+      dynamicColor = new float[map.width * map.height * 3];
+    }
+
+    float[][] fovMap = map.getResistanceMap();
+
+    // Walls moved, everything that was cast is wrong
+    if (map.getResistanceRevision() != resistanceRevision) {
+      resistanceRevision = map.getResistanceRevision();
+
+      Arrays.fill(staticLight, 0);
+      Arrays.fill(staticColor, 0);
+      staticLights.clear();
+    }
+
+    clearDynamic();
+
+    pass += 1;
+
     ImmutableArray<Entity> lightSources = WorldManager.engine.getEntitiesFor(family);
 
-    if (counter >= .10f) {
-      for (Entity lightSource : lightSources) {
-        LightComponent light = ComponentMappers.light.get(lightSource);
-        PositionComponent position = ComponentMappers.position.get(lightSource);
-
-        if (position == null) {
-          if (WorldManager.itemHelpers.isEquipped(WorldManager.player, lightSource)) {
-            position = ComponentMappers.position.get(WorldManager.player);
-          } else {
-            continue;
-          }
+    for (Entity lightSource : lightSources) {
+      LightComponent light = ComponentMappers.light.get(lightSource);
+      PositionComponent position = ComponentMappers.position.get(lightSource);
+
+      if (position == null) {
+        if (WorldManager.itemHelpers.isEquipped(WorldManager.player, lightSource)) {
+          position = ComponentMappers.position.get(WorldManager.player);
+        } else {
+          continue;
         }
+      }
 
-        float radius = light.radius;
+      int cellX = (int) position.pos.x;
+      int cellY = (int) position.pos.y;
 
-        if (light.flickers) {
-          radius = MathUtils.random(light.radius - 1, light.radius + 1);
-        }
+      if (light.flickers) {
+        float radius = MathUtils.random(light.radius - 1, light.radius + 1);
+        Color color = light.colors.get(MathUtils.random(0, light.colors.size() - 1));
 
-        float[][] map = caster.calculateFov(
-            fovMap, (int) position.pos.x, (int) position.pos.y, radius
-        );
+        castDynamic(fovMap, cellX, cellY, radius, color);
+      } else {
+        updateStatic(fovMap, lightSource, light, cellX, cellY);
+      }
+    }
 
-        int colorIndex = MathUtils.random(0, light.colors.size() - 1);
+    // Lights that have gone away take what they lit with them
+    ObjectMap.Entries<Entity, StaticLight> entries = staticLights.entries();
 
-        for (int x = 0; x < map.length; x++) {
-          for (int y = 0; y < map[x].length; y++) {
-            lightMap[x][y] += map[x][y];
-            colorMap[x][y] = light.colors.get(colorIndex);
-          }
-        }
+    while (entries.hasNext()) {
+      StaticLight light = entries.next().value;
+
+      if (light.pass != pass) {
+        apply(light.lit, light.color, -1, staticLight, staticColor);
+        entries.remove();
       }
+    }
 
-      counter = 0;
+    // Fire is one light source spread over every burning cell, flickering like a torch would
+    MapFire fire = map.fire;
+
+    for (int i = 0; i < fire.getBurningCount(); i++) {
+      int index = fire.getBurning(i);
+      Color color = Colors.get("fire-" + MathUtils.random(1, 3));
+
+      castDynamic(fovMap, index / height, index % height, MathUtils.random(1, 3), color);
     }
   }
+
+  // Only recast if it's moved since last time
+  private void updateStatic(float[][] fovMap, Entity entity, LightComponent light,
+                            int cellX, int cellY) {
+    StaticLight cached = staticLights.get(entity);
+
+    if (cached == null) {
+      cached = new StaticLight();
+      cached.color = light.colors.get(MathUtils.random(0, light.colors.size() - 1));
+      staticLights.put(entity, cached);
+    } else if (cached.cellX == cellX && cached.cellY == cellY) {
+      cached.pass = pass;
+      return;
+    } else {
+      apply(cached.lit, cached.color, -1, staticLight, staticColor);
+    }
+
+    cached.cellX = cellX;
+    cached.cellY = cellY;
+    cached.pass = pass;
+
+    caster.calculateFov(fovMap, cellX, cellY, light.radius, cached.lit);
+    apply(cached.lit, cached.color, 1, staticLight, staticColor);
+  }
+
+  private void castDynamic(float[][] fovMap, int cellX, int cellY, float radius, Color color) {
+    caster.calculateFov(fovMap, cellX, cellY, radius, lit);
+    apply(lit, color, 1, dynamicLight, dynamicColor);
+
+    dirtyMinX = Math.min(dirtyMinX, lit.getX());
+    dirtyMinY = Math.min(dirtyMinY, lit.getY());
+    dirtyMaxX = Math.max(dirtyMaxX, lit.getX() + lit.getWidth() - 1);
+    dirtyMaxY = Math.max(dirtyMaxY, lit.getY() + lit.getHeight() - 1);
+  }
+
+  private void clearDynamic() {
+    for (int x = dirtyMinX; x <= dirtyMaxX; x++) {
+      int from = x * height + dirtyMinY;
+      int to = x * height + dirtyMaxY + 1;
+
+      Arrays.fill(dynamicLight, from, to, 0);
+      Arrays.fill(dynamicColor, from * 3, to * 3, 0);
+    }
+
+    dirtyMinX = Integer.MAX_VALUE;
+    dirtyMinY = Integer.MAX_VALUE;
+    dirtyMaxX = -1;
+    dirtyMaxY = -1;
+  }
+
+  // Add (or with a sign of -1, take back out) what a light lit
+  private void apply(FieldOfView lit, Color color, float sign, float[] light, float[] colors) {
+    for (int x = lit.getX(); x < lit.getX() + lit.getWidth(); x++) {
+      for (int y = lit.getY(); y < lit.getY() + lit.getHeight(); y++) {
+        float amount = lit.get(x, y) * sign;
+
+        if (amount == 0) {
+          continue;
+        }
+
+        int index = x * height + y;
+
+        light[index] += amount;
+        colors[index * 3] += amount * color.r;
+        colors[index * 3 + 1] += amount * color.g;
+        colors[index * 3 + 2] += amount * color.b;
+      }
+    }
+  }
+
+  private static class StaticLight {
+    final FieldOfView lit = new FieldOfView();
+    Color color;
+    int cellX;
+    int cellY;
+    int pass;
+  }
 }
@@ -0,0 +1,164 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Vector2;
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.util.BitSet;
+
+class MapSerializer extends Serializer<Map> {
+  private static final MapCell.Type[] TYPES = MapCell.Type.values();
+
+  /**
+   * Writes a map as flat grids, the same way Map keeps them in memory. Light and weather aren't
+   * saved, they get made again on load.
+   */
+  MapSerializer() {
+    super(false);
+  }
+
+  @Override
+  public void write(Kryo kryo, Output output, Map map) {
+    output.writeInt(map.depth, true);
+    output.writeString(map.type);
+    output.writeInt(map.width, true);
+    output.writeInt(map.height, true);
+
+    for (int x = 0; x < map.width; x++) {
+      for (int y = 0; y < map.height; y++) {
+        output.writeByte(map.geometry[x][y].ordinal());
+      }
+    }
+
+    output.writeBoolean(map.hasWater);
+    output.writeFloat(map.rain);
+    kryo.writeObjectOrNull(output, map.entrance, Vector2.class);
+    kryo.writeObjectOrNull(output, map.exit, Vector2.class);
+
+    output.writeInt(map.palette.size, true);
+
+    for (int i = 0; i < map.palette.size; i++) {
+      MapTile tile = map.palette.get(i);
+
+      output.writeString(tile.region);
+      writeColor(output, tile.color);
+      writeColor(output, tile.animateTo);
+      output.writeBoolean(tile.flipped);
+    }
+
+    // Description ids are only good for this run, so save the strings they point to
+    synchronized (Map.class) {
+      output.writeInt(Map.descriptions.size, true);
+
+      for (int i = 0; i < Map.descriptions.size; i++) {
+        output.writeString(Map.descriptions.get(i));
+      }
+    }
+
+    output.writeBytes(map.cells);
+    output.writeShorts(map.tiles);
+    output.writeShorts(map.cellDescriptions);
+
+    writeBits(output, map.hidden);
+    writeBits(output, map.forgotten);
+    writeBits(output, map.onFire);
+
+    // Only the cells burning right now, plus what's already burnt so it doesn't catch again
+    output.writeInt(map.fire.burning.size, true);
+    output.writeInts(map.fire.burning.toArray(), true);
+    output.writeInts(map.fire.fuel.toArray(), true);
+    output.writeInt(map.fire.budget);
+    writeBits(output, map.fire.burnt);
+  }
+
+  @Override
+  public Map read(Kryo kryo, Input input, Class<Map> type) {
+    int depth = input.readInt(true);
+    String mapType = input.readString();
+    int width = input.readInt(true);
+    int height = input.readInt(true);
+
+    MapCell.Type[][] geometry = new MapCell.Type[width][height];
+
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        geometry[x][y] = TYPES[input.readByte()];
+      }
+    }
+
+    Map map = new Map(depth, mapType, geometry);
+    kryo.reference(map);
+
+    map.hasWater = input.readBoolean();
+    map.rain = input.readFloat();
+    map.entrance = kryo.readObjectOrNull(input, Vector2.class);
+    map.exit = kryo.readObjectOrNull(input, Vector2.class);
+
+    int paletteSize = input.readInt(true);
+
+    for (int i = 0; i < paletteSize; i++) {
+      String region = input.readString();
+      Color color = readColor(input);
+      Color animateTo = readColor(input);
+
+      map.tile(region, color, animateTo, input.readBoolean());
+    }
+
+    int descriptionCount = input.readInt(true);
+    int[] descriptionIds = new int[descriptionCount];
+
+    for (int i = 0; i < descriptionCount; i++) {
+      descriptionIds[i] = Map.describe(input.readString());
+    }
+
+    int size = width * height;
+
+    map.cells = input.readBytes(size);
+    map.tiles = input.readShorts(size);
+    map.cellDescriptions = input.readShorts(size);
+
+    for (int i = 0; i < size; i++) {
+      map.cellDescriptions[i] = (short) descriptionIds[map.cellDescriptions[i]];
+    }
+
+    map.hidden = readBits(input);
+    map.forgotten = readBits(input);
+    map.onFire = readBits(input);
+    map.updateResistance();
+    map.updateSampler();
+
+    int burning = input.readInt(true);
+    map.fire.burning.addAll(input.readInts(burning, true));
+    map.fire.fuel.addAll(input.readInts(burning, true));
+    map.fire.budget = input.readInt();
+    map.fire.burnt = readBits(input);
+
+    return map;
+  }
+
+  private static void writeColor(Output output, Color color) {
+    output.writeBoolean(color != null);
+
+    if (color != null) {
+      output.writeInt(Color.rgba8888(color));
+    }
+  }
+
+  private static Color readColor(Input input) {
+    return input.readBoolean() ? new Color(input.readInt()) : null;
+  }
+
+  private static void writeBits(Output output, BitSet bits) {
+    long[] words = bits.toLongArray();
+
+    output.writeInt(words.length, true);
+    output.writeLongs(words);
+  }
+
+  private static BitSet readBits(Input input) {
+    return BitSet.valueOf(input.readLongs(input.readInt(true)));
+  }
+}
@@ -0,0 +1,53 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+
+import me.dannytatom.xibalba.Main;
+
+public class MapTile {
+  public final String region;
+  public final Color color;
+  public final Color animateTo;
+  public final boolean flipped;
+  private Sprite sprite;
+
+  /**
+   * What a cell looks like. Cells only store an id pointing at one of these, every cell that looks
+   * the same shares the same tile (and the same sprite).
+   *
+   * @param region    Atlas region
+   * @param color     Color to tint it
+   * @param animateTo Color to fade back and forth to, null if it doesn't animate
+   * @param flipped   Flip it horizontally
+   */
+  MapTile(String region, Color color, Color animateTo, boolean flipped) {
+    this.region = region;
+    this.color = color;
+    this.animateTo = animateTo;
+    this.flipped = flipped;
+  }
+
+  public boolean isAnimated() {
+    return animateTo != null;
+  }
+
+  /**
+   * Sprite for this tile, created the first time it's drawn.
+   *
+   * @return The sprite
+   */
+  public Sprite getSprite() {
+    if (sprite == null) {
+      sprite = Main.asciiAtlas.createSprite(region);
+      sprite.setFlip(flipped, false);
+      sprite.setColor(color);
+    }
+
+    return sprite;
+  }
+
+  static String key(String region, Color color, Color animateTo, boolean flipped) {
+    return region + ":" + color + ":" + animateTo + ":" + flipped;
+  }
+}
@@ -1,39 +1,54 @@
 package me.dannytatom.xibalba.world;
 
-import com.badlogic.ashley.core.Entity;
-import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.graphics.Colors;
+import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.math.Vector2;
 
 import me.dannytatom.xibalba.Main;
-import me.dannytatom.xibalba.components.PositionComponent;
-import me.dannytatom.xibalba.components.RainDropComponent;
-import me.dannytatom.xibalba.components.VisualComponent;
-import me.dannytatom.xibalba.utils.ComponentMappers;
 
 public class MapWeather {
-  private final ImmutableArray<Entity> rainDrops;
+  // What each drop's doing, same steps the rain has always gone through
+  private static final byte SPAWNING = 1;
+  private static final byte SPLASHING = 5;
+  private static final byte FADING = 6;
+  private static final byte FADED = 7;
+
+  private final int mapIndex;
   private final Sprite falling;
   private final Sprite splash;
   private final Sprite fading;
+  private final Vector2 next = new Vector2();
   private float animCounter = 0;
 
+  // One slot per drop, x of -1 means it hasn't landed anywhere yet
+  private final int[] cellX;
+  private final int[] cellY;
+  private final byte[] life;
+
   /**
    * Rainfall in the forest.
    *
-   * <p>Generate 250 rain drops in random positions on the map.
+   * <p>Drops aren't entities, they're just where they are & how far along they are, so they never
+   * show up in anything the engine or map helpers go through. How many there are comes from the
+   * map's rain, in drops per 1000 cells.
    *
    * @param mapIndex The map we're working on
    */
   public MapWeather(int mapIndex) {
-    for (int i = 0; i < 250; i++) {
-      Entity drop = WorldManager.entityFactory.createRainDrop();
-      WorldManager.world.entities.get(mapIndex).add(drop);
-    }
+    this.mapIndex = mapIndex;
 
-    rainDrops = WorldManager.engine.getEntitiesFor(Family.all(RainDropComponent.class).get());
+    Map map = WorldManager.world.getMap(mapIndex);
+    int drops = Math.round(map.width * map.height * map.rain / 1000);
+
+    cellX = new int[drops];
+    cellY = new int[drops];
+    life = new byte[drops];
+
+    for (int i = 0; i < drops; i++) {
+      cellX[i] = -1;
+      life[i] = SPAWNING;
+    }
 
     falling = Main.asciiAtlas.createSprite("1502");
     falling.setColor(Colors.get("CYAN"));
@@ -53,45 +68,90 @@ public class MapWeather {
     if (animCounter >= .10f) {
       animCounter = 0;
 
-      for (Entity drop : rainDrops) {
-        RainDropComponent stats = ComponentMappers.rainDrop.get(drop);
-        PositionComponent position = ComponentMappers.position.get(drop);
-        VisualComponent visual = ComponentMappers.visual.get(drop);
-
-        if (stats.life == 1) {
-          Vector2 newPosition = WorldManager.mapHelpers.getRandomOpenPositionOnLand();
-
-          visual.sprite.set(falling);
-          WorldManager.entityHelpers.updatePosition(drop, newPosition.x, newPosition.y);
-          WorldManager.entityHelpers.updateSprite(drop, newPosition.x, newPosition.y);
-
-          stats.life += 1;
-        } else if (stats.life >= 2 && stats.life <= 4) {
-          Vector2 newPosition = new Vector2(position.pos.x - 1, position.pos.y - 1);
-
-          if (WorldManager.mapHelpers.isBlocked(newPosition)) {
-            stats.life = 5;
-          } else {
-            WorldManager.entityHelpers.updatePosition(drop, newPosition.x, newPosition.y);
-            WorldManager.entityHelpers.updateSprite(drop, newPosition.x, newPosition.y);
-
-            stats.life += 1;
-          }
-        } else if (stats.life == 5) {
-          visual.sprite.set(splash);
-          WorldManager.entityHelpers.updateSprite(drop, position.pos.x, position.pos.y);
-
-          stats.life += 1;
-        } else if (stats.life == 6) {
-          visual.sprite.set(fading);
-          WorldManager.entityHelpers.updateSprite(drop, position.pos.x, position.pos.y);
-          WorldManager.mapHelpers.makeFloorWet(position.pos);
-
-          stats.life += 1;
-        } else if (stats.life == 7) {
-          stats.life = 1;
+      for (int i = 0; i < life.length; i++) {
+        switch (life[i]) {
+          case SPAWNING:
+            Vector2 position = WorldManager.mapHelpers.getRandomOpenPositionOnLand(mapIndex);
+
+            if (position != null) {
+              cellX[i] = (int) position.x;
+              cellY[i] = (int) position.y;
+              life[i] += 1;
+            }
+            break;
+          case SPLASHING:
+            life[i] += 1;
+            break;
+          case FADING:
+            WorldManager.mapHelpers.makeFloorWet(next.set(cellX[i], cellY[i]));
+            life[i] += 1;
+            break;
+          case FADED:
+            life[i] = SPAWNING;
+            break;
+          default:
+            // Falling diagonally until it hits something
+            next.set(cellX[i] - 1, cellY[i] - 1);
+
+            if (next.x < 0 || next.y < 0 || WorldManager.mapHelpers.isBlocked(mapIndex, next)) {
+              life[i] = SPLASHING;
+            } else {
+              cellX[i] -= 1;
+              cellY[i] -= 1;
+              life[i] += 1;
+            }
         }
       }
     }
   }
+
+  /**
+   * Draw every drop inside the given cells that the player knows about.
+   *
+   * @param batch    Batch to draw with, already begun
+   * @param minCellX Left most cell on screen
+   * @param minCellY Bottom most cell on screen
+   * @param maxCellX Right most cell on screen
+   * @param maxCellY Top most cell on screen
+   * @return How many drops got drawn
+   */
+  public int render(Batch batch, int minCellX, int minCellY, int maxCellX, int maxCellY) {
+    Map map = WorldManager.world.getMap(mapIndex);
+    int drawn = 0;
+
+    for (int i = 0; i < life.length; i++) {
+      int x = cellX[i];
+      int y = cellY[i];
+
+      if (x < minCellX || x > maxCellX || y < minCellY || y > maxCellY) {
+        continue;
+      }
+
+      int index = map.indexOf(x, y);
+
+      if (map.isHidden(index) || map.isForgotten(index)) {
+        continue;
+      }
+
+      Sprite sprite = getSprite(life[i]);
+      sprite.setPosition(x * Main.SPRITE_WIDTH, y * Main.SPRITE_HEIGHT);
+      sprite.draw(batch);
+      drawn += 1;
+    }
+
+    return drawn;
+  }
+
+  // Steps are counted after they happen, so a drop that just splashed is on FADING
+  private Sprite getSprite(byte step) {
+    switch (step) {
+      case FADING:
+        return splash;
+      case FADED:
+      case SPAWNING:
+        return fading;
+      default:
+        return falling;
+    }
+  }
 }
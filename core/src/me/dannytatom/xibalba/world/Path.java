@@ -0,0 +1,80 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.gdx.utils.IntArray;
+
+public class Path {
+  // Each step is x in the high 16 bits & y in the low 16, steps before the cursor are walked
+  private final IntArray steps;
+  private int cursor = 0;
+
+  /**
+   * Cells to walk, in order.
+   *
+   * <p>Walking a step just moves the cursor along, nothing gets shifted or copied, and finding a
+   * new path fills the same one back up instead of making another.
+   */
+  public Path() {
+    this.steps = new IntArray();
+  }
+
+  public void add(int cellX, int cellY) {
+    steps.add((cellX << 16) | (cellY & 0xFFFF));
+  }
+
+  /**
+   * How many steps are left.
+   *
+   * @return Steps not walked yet
+   */
+  public int size() {
+    return steps.size - cursor;
+  }
+
+  public boolean isEmpty() {
+    return cursor >= steps.size;
+  }
+
+  /**
+   * x of a step, counting from the next one.
+   *
+   * @param index 0 for the next step
+   * @return x of the cell
+   */
+  public int getX(int index) {
+    return steps.get(cursor + index) >>> 16;
+  }
+
+  /**
+   * y of a step, counting from the next one.
+   *
+   * @param index 0 for the next step
+   * @return y of the cell
+   */
+  public int getY(int index) {
+    return steps.get(cursor + index) & 0xFFFF;
+  }
+
+  public int getLastX() {
+    return steps.peek() >>> 16;
+  }
+
+  public int getLastY() {
+    return steps.peek() & 0xFFFF;
+  }
+
+  /**
+   * Done with the next step, move on to the one after.
+   */
+  public void advance() {
+    cursor += 1;
+
+    if (cursor >= steps.size) {
+      clear();
+    }
+  }
+
+  public void clear() {
+    steps.clear();
+    cursor = 0;
+  }
+}
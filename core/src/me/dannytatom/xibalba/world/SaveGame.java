@@ -0,0 +1,163 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.util.ArrayList;
+
+import me.dannytatom.xibalba.Main;
+
+public class SaveGame {
+  // Bump this whenever something saved changes shape, old saves just won't load
+  private static final int VERSION = 7;
+
+  private static final String PATH = "save/xibalba.sav";
+
+  // Only ever written to from one save thread at a time
+  private static final Object writeLock = new Object();
+
+  private static Kryo kryo;
+
+  public static boolean exists() {
+    return Gdx.files.local(PATH).exists();
+  }
+
+  /**
+   * Save the whole run. Everything gets serialized into memory right away, so the world can keep
+   * changing, then written to disk on its own thread.
+   */
+  public static void save() {
+    Output output = new Output(64 * 1024, -1);
+    write(output);
+
+    byte[] snapshot = output.toBytes();
+
+    new Thread(() -> {
+      synchronized (writeLock) {
+        FileHandle file = Gdx.files.local(PATH);
+        FileHandle temp = file.sibling(file.name() + ".tmp");
+
+        // Write it next to the old one first so a crash halfway doesn't lose both
+        temp.writeBytes(snapshot, false);
+        temp.moveTo(file);
+      }
+    }, "Save").start();
+  }
+
+  /**
+   * Load the saved run, replacing whatever's in WorldManager. Doesn't change screens.
+   *
+   * @param main Instance of Main
+   * @return False if there's no save or it can't be read
+   */
+  public static boolean load(Main main) {
+    if (!exists()) {
+      return false;
+    }
+
+    WorldManager.setup();
+
+    try (Input input = new Input(Gdx.files.local(PATH).readBytes())) {
+      if (!read(input)) {
+        return false;
+      }
+    } catch (KryoException e) {
+      Gdx.app.error("Save Game", "Couldn't load save", e);
+
+      return false;
+    }
+
+    // Light & weather aren't saved, make them again. Packed levels do this when they're unpacked
+    for (int i = 0; i < WorldManager.world.maps.size(); i++) {
+      if (!WorldManager.world.isPagedOut(i)) {
+        DepthPager.restore(WorldManager.world.getMap(i), i);
+      }
+    }
+
+    // Levels the player hadn't got near yet weren't made before saving, make them as we go
+    WorldManager.world.generator = new WorldGenerator(null);
+    WorldManager.world.setup(main);
+
+    return true;
+  }
+
+  private static void write(Output output) {
+    Kryo kryo = getKryo();
+    World world = WorldManager.world;
+
+    output.writeInt(VERSION);
+    output.writeInt(WorldManager.turnCount, true);
+    output.writeInt(world.currentMapIndex, true);
+    kryo.writeObject(output, WorldManager.log.actions);
+
+    output.writeInt(world.maps.size(), true);
+
+    for (int i = 0; i < world.maps.size(); i++) {
+      // Packed levels are already bytes, no need to unpack them just to write them again
+      byte[] page = world.pages.get(i);
+      output.writeBoolean(page != null);
+
+      if (page != null) {
+        output.writeInt(page.length, true);
+        output.writeBytes(page);
+      } else {
+        DepthPager.write(kryo, output, world.getMap(i), world.entities.get(i));
+      }
+    }
+
+    kryo.writeObject(output, WorldManager.player);
+    kryo.writeObject(output, WorldManager.god);
+
+    kryo.reset();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static boolean read(Input input) {
+    if (input.readInt() != VERSION) {
+      return false;
+    }
+
+    Kryo kryo = getKryo();
+    World world = WorldManager.world;
+
+    WorldManager.turnCount = input.readInt(true);
+    world.currentMapIndex = input.readInt(true);
+
+    WorldManager.log.actions.clear();
+    WorldManager.log.actions.addAll(kryo.readObject(input, ArrayList.class));
+
+    int mapCount = input.readInt(true);
+
+    for (int i = 0; i < mapCount; i++) {
+      world.maps.add(null);
+    }
+
+    for (int i = 0; i < mapCount; i++) {
+      if (input.readBoolean()) {
+        world.pages.put(i, input.readBytes(input.readInt(true)));
+      } else {
+        DepthPager.read(kryo, input, i, world);
+      }
+    }
+
+    WorldManager.player = kryo.readObject(input, Entity.class);
+    WorldManager.god = kryo.readObject(input, Entity.class);
+
+    kryo.reset();
+
+    return true;
+  }
+
+  private static Kryo getKryo() {
+    if (kryo == null) {
+      kryo = WorldSerializers.create(false);
+    }
+
+    return kryo;
+  }
+}
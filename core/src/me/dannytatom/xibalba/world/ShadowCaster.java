@@ -5,26 +5,29 @@ public class ShadowCaster {
   private int height;
   private int startX;
   private int startY;
-  private float[][] lightMap;
+  private FieldOfView lightMap;
   private float[][] resistanceMap;
   private float radius;
 
   /**
    * http://www.roguebasin.com/index.php?title=Improved_Shadowcasting_in_Java
    *
-   * <p>Calculates the Field Of View for the provided world from the given x, y coordinates. Returns
-   * a light map for a result where the values represent a percentage of fully lit.
+   * <p>Calculates the Field Of View for the provided world from the given x, y coordinates. Writes
+   * a light map into the given result where the values represent a percentage of fully lit.
    *
    * <p>A value equal to or below 0means that cell is not in the field of view, whereas a value
    * equal to or above 1 means that cell is in the field of view.
    *
+   * <p>Nothing past the radius can be lit, so the result only covers the square around the start.
+   *
    * @param resistanceMap the grid of cells to calculate on where 0 is transparent and 1 is opaque
    * @param startX        the horizontal component of the starting location
    * @param startY        the vertical component of the starting location
    * @param radius        the maximum distance to draw the FOV
-   * @return the computed light grid
+   * @param result        where to put the computed light grid
    */
-  public float[][] calculateFov(float[][] resistanceMap, int startX, int startY, float radius) {
+  public void calculateFov(float[][] resistanceMap, int startX, int startY, float radius,
+                           FieldOfView result) {
     this.startX = startX;
     this.startY = startY;
     this.radius = radius;
@@ -32,17 +35,26 @@ public class ShadowCaster {
 
     width = resistanceMap.length;
     height = resistanceMap[0].length;
-    lightMap = new float[width][height];
+    lightMap = result;
+
+    int reach = (int) Math.ceil(Math.max(radius, 0));
+    int minX = Math.max(startX - reach, 0);
+    int minY = Math.max(startY - reach, 0);
+    int maxX = Math.min(startX + reach, width - 1);
+    int maxY = Math.min(startY + reach, height - 1);
+
+    lightMap.reset(minX, minY, maxX - minX + 1, maxY - minY + 1);
 
     float force = 1;
-    lightMap[startX][startY] = force; // light the starting cell
+    lightMap.set(startX, startY, force); // light the starting cell
 
     for (Direction d : Direction.DIAGONALS) {
       castLight(1, 1.0f, 0.0f, 0, d.deltaX, d.deltaY, 0);
       castLight(1, 1.0f, 0.0f, d.deltaX, 0, 0, d.deltaY);
     }
 
-    return lightMap;
+    lightMap = null;
+    this.resistanceMap = null;
   }
 
   private void castLight(int row, float start, float end, int xx, int xy, int yx, int yy) {
@@ -76,7 +88,7 @@ public class ShadowCaster {
         // Check if it's within the lightable area and light if needed
         if (radius(deltaX, deltaY) <= radius) {
           float bright = (1 - (radius(deltaX, deltaY) / radius));
-          lightMap[currentX][currentY] = bright;
+          lightMap.set(currentX, currentY, bright);
         }
 
         if (blocked) {
@@ -1,8 +1,10 @@
 package me.dannytatom.xibalba.world;
 
 import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -12,12 +14,20 @@ import me.dannytatom.xibalba.components.MouseMovementComponent;
 import me.dannytatom.xibalba.components.PlayerComponent;
 import me.dannytatom.xibalba.screens.DepthScreen;
 import me.dannytatom.xibalba.screens.PlayScreen;
+import me.dannytatom.xibalba.systems.SensesSystem;
 import me.dannytatom.xibalba.utils.ComponentMappers;
 
 public class World {
+  // Levels further than this from the one we're on get packed away
+  private static final int RESIDENT_DEPTHS = 1;
+
+  // Packed levels have null here & no entry in entities, use getMap & getEntities to get at them
   public final ArrayList<Map> maps;
   public final HashMap<Integer, Array<Entity>> entities;
+  final IntMap<byte[]> pages;
   public int currentMapIndex = 0;
+  public WorldGenerator generator;
+  private final DepthPager pager;
   private Main main;
 
   /**
@@ -26,6 +36,8 @@ public class World {
   public World() {
     maps = new ArrayList<>();
     entities = new HashMap<>();
+    pages = new IntMap<>();
+    pager = new DepthPager();
   }
 
   public Map getCurrentMap() {
@@ -33,9 +45,21 @@ public class World {
   }
 
   public Map getMap(int index) {
+    pageIn(index);
+
     return maps.get(index);
   }
 
+  public Array<Entity> getEntities(int index) {
+    pageIn(index);
+
+    return entities.get(index);
+  }
+
+  public boolean isPagedOut(int index) {
+    return pages.containsKey(index);
+  }
+
   public void addEntity(Entity entity) {
     entities.get(WorldManager.world.currentMapIndex).add(entity);
     WorldManager.engine.addEntity(entity);
@@ -46,29 +70,83 @@ public class World {
     WorldManager.engine.removeEntity(entity);
   }
 
+  /**
+   * Take something off the level it's on because it's been picked up. Carried things aren't on
+   * any level, they go wherever whoever's carrying them goes, so a packed level never keeps a copy
+   * of them.
+   *
+   * @param entity What's being picked up
+   */
+  public void carry(Entity entity) {
+    Array<Entity> current = entities.get(currentMapIndex);
+
+    if (current != null) {
+      current.removeValue(entity, true);
+    }
+  }
+
+  /**
+   * Put something that was being carried on the current level.
+   *
+   * @param entity What's being dropped
+   */
+  public void place(Entity entity) {
+    Array<Entity> current = entities.get(currentMapIndex);
+
+    if (!current.contains(entity, true)) {
+      current.add(entity);
+    }
+
+    // It's only still in the engine if it's being dropped on the level it was picked up on
+    if (!WorldManager.engine.getEntities().contains(entity, true)) {
+      WorldManager.engine.addEntity(entity);
+    }
+  }
+
   /**
    * Setup starting level.
    */
   public void setup(Main main) {
     this.main = main;
 
+    updatePages();
+
+    // Get a head start on the next level down
+    if (generator != null) {
+      generator.start(currentMapIndex + 1);
+    }
+
+    SensesSystem senses = WorldManager.engine.getSystem(SensesSystem.class);
+
     for (Entity entity : entities.get(currentMapIndex)) {
       WorldManager.engine.addEntity(entity);
 
       if (ComponentMappers.attributes.has(entity)) {
-        WorldManager.entityHelpers.updateSenses(entity);
+        senses.moved(entity);
       }
     }
+
+    senses.flush();
   }
 
   private void changeDepth(int change) {
     Main.playScreen.dispose();
     main.setScreen(new DepthScreen());
 
+    // Usually it's been made in the background already, if not we wait for it
+    if (generator != null) {
+      generator.waitFor(currentMapIndex + change);
+    }
+
     entities.get(currentMapIndex).removeValue(WorldManager.player, true);
-    entities.get(currentMapIndex + change).add(WorldManager.player);
+    getEntities(currentMapIndex + change).add(WorldManager.player);
 
     currentMapIndex += change;
+    updatePages();
+
+    if (generator != null) {
+      generator.start(currentMapIndex + 1);
+    }
 
     PlayerComponent playerDetails = ComponentMappers.player.get(WorldManager.player);
     if (currentMapIndex > playerDetails.lowestDepth) {
@@ -77,6 +155,8 @@ public class World {
 
     WorldManager.engine.removeAllEntities();
 
+    SensesSystem senses = WorldManager.engine.getSystem(SensesSystem.class);
+
     for (Entity entity : entities.get(currentMapIndex)) {
       WorldManager.engine.addEntity(entity);
 
@@ -92,10 +172,12 @@ public class World {
           WorldManager.entityHelpers.updateSprite(entity, position.x, position.y);
         }
 
-        WorldManager.entityHelpers.updateSenses(entity);
+        senses.moved(entity);
       }
     }
 
+    senses.flush();
+
     Main.playScreen = new PlayScreen(main);
     main.setScreen(Main.playScreen);
   }
@@ -113,4 +195,44 @@ public class World {
   public void goUp() {
     changeDepth(-1);
   }
+
+  // Keep the levels next to this one ready so taking the stairs doesn't have to unpack anything,
+  // and pack away the rest
+  private void updatePages() {
+    for (int i = 0; i < maps.size(); i++) {
+      if (Math.abs(i - currentMapIndex) <= RESIDENT_DEPTHS) {
+        pageIn(i);
+      } else {
+        pageOut(i);
+      }
+    }
+  }
+
+  private void pageIn(int index) {
+    byte[] page = pages.remove(index);
+
+    if (page != null) {
+      pager.unpack(page, index, this);
+
+      Gdx.app.log("World", "Unpacked level " + (index + 1) + " from " + page.length + " bytes");
+    }
+  }
+
+  private void pageOut(int index) {
+    Map map = maps.get(index);
+
+    if (map == null || index == currentMapIndex) {
+      return;
+    }
+
+    pages.put(index, pager.pack(map, entities.get(index)));
+
+    WorldManager.dijkstraCache.forget(map);
+    maps.set(index, null);
+    entities.remove(index);
+
+    Gdx.app.log(
+        "World", "Packed level " + (index + 1) + " into " + pages.get(index).length + " bytes"
+    );
+  }
 }
@@ -0,0 +1,330 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntSet;
+import com.badlogic.gdx.utils.Json;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import me.dannytatom.xibalba.components.BrainComponent;
+import me.dannytatom.xibalba.utils.ComponentMappers;
+import me.dannytatom.xibalba.utils.JsonToLevel;
+import me.dannytatom.xibalba.utils.PlayerSetup;
+import me.dannytatom.xibalba.world.generators.CaveGenerator;
+import me.dannytatom.xibalba.world.generators.ForestGenerator;
+
+public class WorldGenerator {
+  private final ArrayList<JsonToLevel> levels;
+  // Levels being generated, null if not started or already spawned
+  private final Array<Future<Map>> pending;
+  private final ExecutorService workers;
+  private final PlayerSetup playerSetup;
+  private int spawned;
+
+  /**
+   * Generates the levels in data/world.json.
+   *
+   * <p>Geometry is generated & painted on worker threads, a level per task. Spawning makes sprites
+   * and touches the engine, so that happens on the render thread once a level and every level
+   * before it are done.
+   *
+   * @param playerSetup Holds data for player creation, null if the player already exists (like
+   *                    when a game's been loaded)
+   */
+  public WorldGenerator(PlayerSetup playerSetup) {
+    this.playerSetup = playerSetup;
+
+    @SuppressWarnings("unchecked")
+    ArrayList<JsonToLevel> loaded = (new Json()).fromJson(
+        ArrayList.class, JsonToLevel.class, Gdx.files.internal("data/world.json")
+    );
+
+    levels = loaded;
+
+    pending = new Array<>();
+
+    // Anything already in the world (from a save) counts as generated & spawned
+    spawned = WorldManager.world.maps.size();
+
+    for (int i = 0; i < levels.size(); i++) {
+      pending.add(null);
+    }
+
+    int threads = Math.max(1, Math.min(levels.size(), Runtime.getRuntime().availableProcessors()));
+
+    workers = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "World Generation");
+      thread.setDaemon(true);
+
+      return thread;
+    });
+  }
+
+  public int getLevelCount() {
+    return levels.size();
+  }
+
+  public int getSpawnedCount() {
+    return spawned;
+  }
+
+  /**
+   * How many levels have their geometry done, whether they've been spawned yet or not.
+   *
+   * @return Number of levels
+   */
+  public int getGeneratedCount() {
+    int generated = 0;
+
+    for (int i = 0; i < levels.size(); i++) {
+      if (i < spawned || (pending.get(i) != null && pending.get(i).isDone())) {
+        generated += 1;
+      }
+    }
+
+    return generated;
+  }
+
+  /**
+   * Start generating a level in the background, if it's not already started or spawned.
+   *
+   * @param index Which level
+   */
+  public void start(int index) {
+    if (index < spawned || index >= levels.size() || pending.get(index) != null) {
+      return;
+    }
+
+    JsonToLevel level = levels.get(index);
+
+    String[] widthRange = level.size.get("width").split(",");
+    String[] heightRange = level.size.get("height").split(",");
+
+    int mapWidth = MathUtils.random(
+        Integer.parseInt(widthRange[0]), Integer.parseInt(widthRange[1])
+    );
+
+    int mapHeight = MathUtils.random(
+        Integer.parseInt(heightRange[0]), Integer.parseInt(heightRange[1])
+    );
+
+    pending.set(index, workers.submit(() -> {
+      Map map = generateLevel(level.type, index, mapWidth, mapHeight);
+
+      // Spawn into it as soon as the render thread gets a chance
+      Gdx.app.postRunnable(this::spawnReady);
+
+      return map;
+    }));
+  }
+
+  /**
+   * Spawn every level that's done, in order, stopping at the first one that isn't.
+   */
+  public void spawnReady() {
+    // A new world's been made since this started
+    if (WorldManager.world.generator != this) {
+      return;
+    }
+
+    while (spawned < levels.size()) {
+      Future<Map> next = pending.get(spawned);
+
+      if (next == null || !next.isDone()) {
+        break;
+      }
+
+      spawn();
+    }
+  }
+
+  /**
+   * Make sure a level is spawned, waiting for it to finish generating if it has to.
+   *
+   * @param index Which level
+   */
+  public void waitFor(int index) {
+    for (int i = spawned; i <= index && i < levels.size(); i++) {
+      start(i);
+    }
+
+    while (spawned <= index && spawned < levels.size()) {
+      spawn();
+    }
+  }
+
+  /**
+   * Stop generating anything that hasn't started.
+   */
+  public void dispose() {
+    workers.shutdownNow();
+  }
+
+  private void spawn() {
+    Map map;
+
+    try {
+      map = pending.get(spawned).get();
+    } catch (InterruptedException | ExecutionException e) {
+      throw new GdxRuntimeException("Couldn't generate level " + (spawned + 1), e);
+    }
+
+    pending.set(spawned, null);
+
+    if (map != null) {
+      WorldManager.world.maps.add(map);
+    }
+
+    spawnShit(levels.get(spawned), spawned, spawned == levels.size() - 1);
+    spawned += 1;
+  }
+
+  // Runs on a worker thread, so nothing in here can touch sprites, textures or the engine
+  private static Map generateLevel(String type, int mapIndex, int mapWidth, int mapHeight) {
+    Gdx.app.log(
+        "World Generation",
+        "Starting " + type + " generation for level " + (mapIndex + 1)
+            + ", size " + mapWidth + "x" + mapHeight
+    );
+
+    MapCell.Type[][] geometry;
+
+    switch (type) {
+      case "forest":
+        ForestGenerator forestGenerator = new ForestGenerator(mapWidth, mapHeight);
+        forestGenerator.generate();
+        geometry = forestGenerator.geometry;
+
+        break;
+      case "cave":
+        CaveGenerator caveGenerator = new CaveGenerator(mapWidth, mapHeight);
+        caveGenerator.generate();
+        geometry = caveGenerator.geometry;
+
+        break;
+      default:
+        return null;
+    }
+
+    Map map = new Map(mapIndex, type, geometry);
+    map.paint();
+
+    return map;
+  }
+
+  private void spawnShit(JsonToLevel level, int mapIndex, boolean isLast) {
+    World world = WorldManager.world;
+    world.entities.put(mapIndex, new Array<>());
+
+    // Spawn an entrance on every level but first
+    if (mapIndex > 0) {
+      Entity entrance = WorldManager.entityFactory.createEntrance(mapIndex);
+
+      world.entities.get(mapIndex).add(entrance);
+
+      world.getMap(mapIndex).entrance
+          = ComponentMappers.position.get(entrance).pos;
+    } else {
+      world.getMap(mapIndex).entrance
+          = WorldManager.mapHelpers.getRandomOpenPositionOnLand(mapIndex);
+    }
+
+    // Spawn an exit on every level but last
+    if (!isLast) {
+      Entity exit = WorldManager.entityFactory.createExit(mapIndex);
+
+      world.entities.get(mapIndex).add(exit);
+      world.getMap(mapIndex).exit = ComponentMappers.position.get(exit).pos;
+    } else {
+      world.getMap(mapIndex).exit
+          = WorldManager.mapHelpers.getRandomOpenPositionOnLand(mapIndex);
+    }
+
+    // Spawn player on first
+    if (mapIndex == 0) {
+      WorldManager.player = playerSetup.create();
+      world.entities.get(mapIndex).add(WorldManager.player);
+    }
+
+    // Everything placed from here on takes its cell
+    IntSet occupied = WorldManager.mapHelpers.getOccupiedCells(mapIndex);
+
+    // Traps
+    for (int i = 0; i < level.traps.size; i++) {
+      HashMap<String, String> trap = level.traps.get(i);
+      String[] range = trap.get("spawnRange").split(",");
+      int amount = MathUtils.random(Integer.parseInt(range[0]), Integer.parseInt(range[1]));
+
+      for (int j = 0; j < amount; j++) {
+        world.entities.get(mapIndex).add(
+            WorldManager.entityFactory.createTrap(trap.get("name"),
+                WorldManager.mapHelpers.getRandomUnoccupiedPositionOnLand(mapIndex, occupied)
+            )
+        );
+      }
+    }
+
+    // Spawn items
+    for (int i = 0; i < level.items.size; i++) {
+      HashMap<String, String> item = level.items.get(i);
+      String[] range = item.get("spawnRange").split(",");
+      int amount = MathUtils.random(Integer.parseInt(range[0]), Integer.parseInt(range[1]));
+
+      for (int j = 0; j < amount; j++) {
+        world.entities.get(mapIndex).add(
+            WorldManager.entityFactory.createItem(item.get("name"),
+                WorldManager.mapHelpers.getRandomUnoccupiedPositionOnLand(mapIndex, occupied))
+        );
+      }
+    }
+
+    // Spawn enemies
+    for (int i = 0; i < level.enemies.size; i++) {
+      HashMap<String, String> enemy = level.enemies.get(i);
+      String[] range = enemy.get("spawnRange").split(",");
+      int amount = MathUtils.random(Integer.parseInt(range[0]), Integer.parseInt(range[1]));
+
+      for (int j = 0; j < amount; j++) {
+        Entity entity = WorldManager.entityFactory.createEnemy(
+            enemy.get("name"), new Vector2(0, 0)
+        );
+
+        BrainComponent brain = ComponentMappers.brain.get(entity);
+        Vector2 position;
+
+        if (brain.dna.contains(BrainComponent.Dna.AQUATIC, false)) {
+          position = WorldManager.mapHelpers.getRandomUnoccupiedPositionInWater(mapIndex, occupied);
+        } else {
+          position = WorldManager.mapHelpers.getRandomUnoccupiedPositionOnLand(mapIndex, occupied);
+        }
+
+        if (position == null) {
+          continue;
+        }
+
+        ComponentMappers.position.get(entity).pos.set(position);
+        world.entities.get(mapIndex).add(entity);
+      }
+    }
+
+    // Lights
+    world.getMap(mapIndex).light = new MapLight(mapIndex);
+
+    // Weather
+    world.getMap(mapIndex).rain = level.rain;
+
+    if (level.rain > 0) {
+      world.getMap(mapIndex).weather = new MapWeather(mapIndex);
+    }
+  }
+}
@@ -3,9 +3,11 @@ package me.dannytatom.xibalba.world;
 import aurelienribon.tweenengine.Tween;
 import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
 import com.badlogic.gdx.utils.Array;
 
 import me.dannytatom.xibalba.ActionLog;
+import me.dannytatom.xibalba.components.PositionComponent;
 import me.dannytatom.xibalba.helpers.CombatHelpers;
 import me.dannytatom.xibalba.helpers.EntityHelpers;
 import me.dannytatom.xibalba.helpers.InputHelpers;
@@ -16,7 +18,9 @@ import me.dannytatom.xibalba.systems.AttributesSystem;
 import me.dannytatom.xibalba.systems.BrainSystem;
 import me.dannytatom.xibalba.systems.DeathSystem;
 import me.dannytatom.xibalba.systems.MouseMovementSystem;
+import me.dannytatom.xibalba.systems.SensesSystem;
 import me.dannytatom.xibalba.systems.TileEffectSystem;
+import me.dannytatom.xibalba.systems.TurnScheduler;
 import me.dannytatom.xibalba.systems.actions.ExploreSystem;
 import me.dannytatom.xibalba.systems.actions.MeleeSystem;
 import me.dannytatom.xibalba.systems.actions.MovementSystem;
@@ -40,6 +44,8 @@ public class WorldManager {
   public static State state;
   public static TargetState targetState;
   public static Array<Tween> tweens;
+  public static DijkstraCache dijkstraCache;
+  public static EntityIndex entityIndex;
   public static EntityFactory entityFactory;
   public static InputHelpers inputHelpers;
   public static MapHelpers mapHelpers;
@@ -55,10 +61,17 @@ public class WorldManager {
    * Setup a whole bunch of shit.
    */
   public static void setup() {
+    // Whatever the last world was still generating isn't needed anymore
+    if (world != null && world.generator != null) {
+      world.generator.dispose();
+    }
+
     engine = new Engine();
     log = new ActionLog();
     world = new World();
     tweens = new Array<>();
+    dijkstraCache = new DijkstraCache();
+    entityIndex = new EntityIndex();
 
     entityFactory = new EntityFactory();
     inputHelpers = new InputHelpers();
@@ -70,7 +83,11 @@ public class WorldManager {
     executeTurn = false;
     turnCount = 0;
 
-    // Setup engine (systems are run in order added)
+    engine.addEntityListener(Family.all(PositionComponent.class).get(), entityIndex);
+
+    // Setup engine (systems are run in order added), the scheduler picks who acts this turn and
+    // everything after it only looks at them
+    engine.addSystem(new TurnScheduler());
     engine.addSystem(new AttributesSystem());
     engine.addSystem(new AbilitiesSystem());
     engine.addSystem(new MouseMovementSystem());
@@ -79,6 +96,7 @@ public class WorldManager {
     engine.addSystem(new RangeSystem());
     engine.addSystem(new MeleeSystem());
     engine.addSystem(new MovementSystem());
+    engine.addSystem(new SensesSystem());
     engine.addSystem(new TileEffectSystem());
     engine.addSystem(new EncumberedSystem());
     engine.addSystem(new CharmedSystem());
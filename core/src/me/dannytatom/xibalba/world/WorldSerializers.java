@@ -0,0 +1,211 @@
+package me.dannytatom.xibalba.world;
+
+import aurelienribon.tweenengine.Tween;
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.ai.fsm.DefaultStateMachine;
+import com.badlogic.gdx.ai.fsm.StateMachine;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.LongMap;
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import me.dannytatom.xibalba.Main;
+import me.dannytatom.xibalba.brain.Brain;
+
+import org.objenesis.strategy.StdInstantiatorStrategy;
+
+class WorldSerializers {
+  private static final byte INLINE = 0;
+  private static final byte PLAYER = 1;
+  private static final byte GOD = 2;
+
+  /**
+   * Kryo set up for maps & entities.
+   *
+   * @param external If true the player & god are written as just a marker and read back as
+   *                 whatever's in WorldManager, for levels that get packed away on their own
+   * @return A Kryo instance, only use it from one thread
+   */
+  static Kryo create(boolean external) {
+    Kryo kryo = new Kryo();
+
+    // Most components don't have a no-arg constructor
+    kryo.setInstantiatorStrategy(
+        new Kryo.DefaultInstantiatorStrategy(new StdInstantiatorStrategy())
+    );
+
+    // Everything written between resets is one graph, so entities on the same level can share
+    // references. Whoever's writing resets when they're done
+    kryo.setAutoReset(false);
+
+    kryo.register(Map.class, new MapSerializer());
+    kryo.addDefaultSerializer(Entity.class, new EntitySerializer(external));
+    kryo.addDefaultSerializer(Sprite.class, new SpriteSerializer());
+    kryo.addDefaultSerializer(StateMachine.class, new StateMachineSerializer());
+    kryo.addDefaultSerializer(FieldOfView.class, new FieldOfViewSerializer());
+    kryo.addDefaultSerializer(Tween.class, new TweenSerializer());
+
+    return kryo;
+  }
+
+  // Entities are just their components. References are on, so entities pointing at each other
+  // (targets, inventory, equipment) come back pointing at the same thing
+  private static class EntitySerializer extends Serializer<Entity> {
+    private final boolean external;
+
+    EntitySerializer(boolean external) {
+      this.external = external;
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, Entity entity) {
+      if (external && entity == WorldManager.player) {
+        output.writeByte(PLAYER);
+        return;
+      } else if (external && entity == WorldManager.god) {
+        output.writeByte(GOD);
+        return;
+      }
+
+      output.writeByte(INLINE);
+
+      ImmutableArray<Component> components = entity.getComponents();
+      output.writeInt(components.size(), true);
+
+      for (int i = 0; i < components.size(); i++) {
+        kryo.writeClassAndObject(output, components.get(i));
+      }
+    }
+
+    @Override
+    public Entity read(Kryo kryo, Input input, Class<Entity> type) {
+      byte kind = input.readByte();
+
+      if (kind == PLAYER) {
+        kryo.reference(WorldManager.player);
+        return WorldManager.player;
+      } else if (kind == GOD) {
+        kryo.reference(WorldManager.god);
+        return WorldManager.god;
+      }
+
+      Entity entity = new Entity();
+      kryo.reference(entity);
+
+      int count = input.readInt(true);
+
+      for (int i = 0; i < count; i++) {
+        entity.add((Component) kryo.readClassAndObject(input));
+      }
+
+      return entity;
+    }
+  }
+
+  // Sprites are saved as the atlas region they came from plus where they are & how they're tinted
+  private static class SpriteSerializer extends Serializer<Sprite> {
+    private LongMap<String> regions;
+
+    @Override
+    public void write(Kryo kryo, Output output, Sprite sprite) {
+      output.writeString(regionName(sprite));
+      output.writeFloat(sprite.getX());
+      output.writeFloat(sprite.getY());
+      output.writeFloat(sprite.getScaleX());
+      output.writeFloat(sprite.getScaleY());
+      output.writeBoolean(sprite.isFlipX());
+      output.writeBoolean(sprite.isFlipY());
+      output.writeFloat(sprite.getColor().toFloatBits());
+    }
+
+    @Override
+    public Sprite read(Kryo kryo, Input input, Class<Sprite> type) {
+      Sprite sprite = Main.asciiAtlas.createSprite(input.readString());
+
+      sprite.setPosition(input.readFloat(), input.readFloat());
+      sprite.setScale(input.readFloat(), input.readFloat());
+      sprite.setFlip(input.readBoolean(), input.readBoolean());
+      sprite.setColor(input.readFloat());
+
+      return sprite;
+    }
+
+    // Sprites don't remember their region's name, so find it by where it is on the texture
+    private String regionName(Sprite sprite) {
+      if (regions == null) {
+        regions = new LongMap<>();
+
+        for (TextureAtlas.AtlasRegion region : Main.asciiAtlas.getRegions()) {
+          regions.put(key(region.getU(), region.getV()), region.name);
+        }
+      }
+
+      float u = Math.min(sprite.getU(), sprite.getU2());
+      float v = Math.min(sprite.getV(), sprite.getV2());
+
+      return regions.get(key(u, v));
+    }
+
+    private static long key(float u, float v) {
+      return ((long) Float.floatToIntBits(u) << 32) | (Float.floatToIntBits(v) & 0xFFFFFFFFL);
+    }
+  }
+
+  // Brains only need to know who they belong to and what state they're in
+  private static class StateMachineSerializer extends Serializer<StateMachine<Entity, Brain>> {
+    @Override
+    public void write(Kryo kryo, Output output, StateMachine<Entity, Brain> stateMachine) {
+      DefaultStateMachine<Entity, Brain> machine
+          = (DefaultStateMachine<Entity, Brain>) stateMachine;
+
+      kryo.writeClassAndObject(output, machine.getOwner());
+      kryo.writeClassAndObject(output, machine.getCurrentState());
+      kryo.writeClassAndObject(output, machine.getGlobalState());
+    }
+
+    @Override
+    public StateMachine<Entity, Brain> read(Kryo kryo, Input input,
+                                            Class<StateMachine<Entity, Brain>> type) {
+      Entity owner = (Entity) kryo.readClassAndObject(input);
+      Brain current = (Brain) kryo.readClassAndObject(input);
+      Brain global = (Brain) kryo.readClassAndObject(input);
+
+      return new DefaultStateMachine<>(owner, current, global);
+    }
+  }
+
+  // Vision & hearing get recalculated as soon as the level's loaded
+  private static class FieldOfViewSerializer extends Serializer<FieldOfView> {
+    @Override
+    public void write(Kryo kryo, Output output, FieldOfView fieldOfView) {
+
+    }
+
+    @Override
+    public FieldOfView read(Kryo kryo, Input input, Class<FieldOfView> type) {
+      return new FieldOfView();
+    }
+  }
+
+  // Tweens are only ever mid-animation, nothing to come back to
+  private static class TweenSerializer extends Serializer<Tween> {
+    TweenSerializer() {
+      super(true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, Tween tween) {
+
+    }
+
+    @Override
+    public Tween read(Kryo kryo, Input input, Class<Tween> type) {
+      return null;
+    }
+  }
+}
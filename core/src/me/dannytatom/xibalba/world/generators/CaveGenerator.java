@@ -2,8 +2,7 @@ package me.dannytatom.xibalba.world.generators;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.MathUtils;
-
-import java.util.Arrays;
+import com.badlogic.gdx.math.RandomXS128;
 
 import me.dannytatom.xibalba.world.MapCell;
 
@@ -11,7 +10,9 @@ public class CaveGenerator {
   private final int width;
   private final int height;
   public MapCell.Type[][] geometry;
-  private MapCell.Type[][] flooded;
+
+  // Levels are generated side by side on worker threads, so each gets its own random
+  private final RandomXS128 random = new RandomXS128();
 
   /**
    * Generates a cave.
@@ -28,70 +29,35 @@ public class CaveGenerator {
    * Starts the cave generation.
    */
   public void generate() {
-    initialize();
+    // Every cell is worked out from the last step now instead of half updated neighbours, which
+    // leaves less floor, so start with a bit more
+    CellularAutomaton automaton = new CellularAutomaton(width, height);
+    automaton.randomize(random, 0.45f);
 
-    geometry = blank();
+    blank(automaton);
 
-    float numberOfSteps = 5;
+    int numberOfSteps = 5;
 
+    // Floor is alive, stays floor with 3 or more floor neighbours, becomes floor with 5 or more
     for (int i = 0; i < numberOfSteps; i++) {
-      geometry = step();
-    }
-
-    emptyGeometryEdges();
-    maybeTryAgain();
-  }
-
-  private void initialize() {
-    geometry = new MapCell.Type[width][height];
-
-    for (MapCell.Type[] row : geometry) {
-      Arrays.fill(row, MapCell.Type.WALL);
-    }
-
-    for (int x = 0; x < width; x++) {
-      for (int y = 0; y < height; y++) {
-        float chanceToStartAlive = 0.4f;
-        if (MathUtils.random() < chanceToStartAlive) {
-          geometry[x][y] = MapCell.Type.FLOOR;
-        }
-      }
+      automaton.step(3, 5);
     }
-  }
-
-  private MapCell.Type[][] step() {
-    MapCell.Type[][] newGeo = geometry.clone();
-
-    for (int x = 0; x < geometry.length; x++) {
-      for (int y = 0; y < geometry[0].length; y++) {
-        int neighbours = countLivingNeighbours(x, y);
 
-        if (geometry[x][y] == MapCell.Type.FLOOR) {
-          float deathLimit = 3;
-          newGeo[x][y] = neighbours >= deathLimit ? MapCell.Type.FLOOR : MapCell.Type.WALL;
-        } else {
-          float birthLimit = 4;
-          newGeo[x][y] = neighbours > birthLimit ? MapCell.Type.FLOOR : MapCell.Type.WALL;
-        }
-      }
-    }
+    geometry = automaton.toGeometry(MapCell.Type.FLOOR, MapCell.Type.WALL);
 
-    return newGeo;
+    emptyGeometryEdges();
+    connectRegions();
   }
 
-  private MapCell.Type[][] blank() {
-    MapCell.Type[][] newGeo = geometry.clone();
-
+  private void blank(CellularAutomaton automaton) {
     int rows = 2;
-    int start = MathUtils.round(geometry[0].length / 2) - rows;
+    int start = MathUtils.round(height / 2) - rows;
 
-    for (int x = 0; x < geometry.length; x++) {
+    for (int x = 0; x < width; x++) {
       for (int y = start; y < start + (rows - 1); y++) {
-        newGeo[x][y] = MapCell.Type.WALL;
+        automaton.set(x, y, false);
       }
     }
-
-    return newGeo;
   }
 
   /**
@@ -112,24 +78,9 @@ public class CaveGenerator {
     }
   }
 
-  private void maybeTryAgain() {
-    flooded = new MapCell.Type[width][height];
-
-    for (MapCell.Type[] row : flooded) {
-      Arrays.fill(row, MapCell.Type.WALL);
-    }
-
-    search:
-    for (int x = 0; x < geometry.length; x++) {
-      for (int y = 0; y < geometry[0].length; y++) {
-        if (geometry[x][y] == MapCell.Type.FLOOR) {
-          floodFill(x, y);
-          break search;
-        }
-      }
-    }
-
-    geometry = flooded;
+  // Keep one connected area, tunnelling other areas to it if it's not big enough on its own
+  private void connectRegions() {
+    Regions.connect(geometry, (width * height) / 6);
 
     int openCount = 0;
 
@@ -142,46 +93,6 @@ public class CaveGenerator {
       }
     }
 
-    if (openCount < (width * height) / 6) {
-      generate();
-    } else {
-      Gdx.app.log("CaveGenerator", "Cave with " + openCount + " tiles open");
-    }
-  }
-
-  private void floodFill(int cellX, int cellY) {
-    if (geometry[cellX][cellY] == MapCell.Type.FLOOR
-        && flooded[cellX][cellY] == MapCell.Type.WALL) {
-      flooded[cellX][cellY] = MapCell.Type.FLOOR;
-    } else {
-      return;
-    }
-
-    floodFill(cellX + 1, cellY);
-    floodFill(cellX - 1, cellY);
-    floodFill(cellX, cellY + 1);
-    floodFill(cellX, cellY - 1);
-  }
-
-  private int countLivingNeighbours(int cellX, int cellY) {
-    int count = 0;
-
-    for (int i = -1; i < 2; i++) {
-      for (int j = -1; j < 2; j++) {
-        int neighbourX = cellX + i;
-        int neighbourY = cellY + j;
-
-        if (i != 0 || j != 0) {
-          if (neighbourX < 0 || neighbourY < 0
-              || neighbourX >= geometry.length || neighbourY >= geometry[0].length) {
-            count += 1;
-          } else if (geometry[neighbourX][neighbourY] == MapCell.Type.FLOOR) {
-            count += 1;
-          }
-        }
-      }
-    }
-
-    return count;
+    Gdx.app.log("CaveGenerator", "Cave with " + openCount + " tiles open");
   }
 }
@@ -0,0 +1,204 @@
+package me.dannytatom.xibalba.world.generators;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+import java.util.Arrays;
+
+import me.dannytatom.xibalba.world.MapCell;
+
+public class CellularAutomaton {
+  private final int width;
+  private final int height;
+  private final int words;
+  private final long padding;
+  private long[] cells;
+  private long[] next;
+
+  // The 8 neighbours of a word's worth of cells, shifted so bit y is that neighbour of cell y
+  private final long[] neighbours = new long[8];
+
+  /**
+   * A grid of living & dead cells, stored as one row of bits per x (bit y of the row is cell x, y)
+   * so a step works on 64 cells at a time.
+   *
+   * <p>Anything off the edge of the grid counts as a living neighbour. To make that fall out of
+   * the bit math, the unused bits at the end of each row are kept alive.
+   *
+   * @param width  How many cells wide
+   * @param height How many cells tall
+   */
+  public CellularAutomaton(int width, int height) {
+    this.width = width;
+    this.height = height;
+    this.words = (height + 63) >>> 6;
+
+    int used = height & 63;
+    this.padding = used == 0 ? 0L : -1L << used;
+
+    this.cells = new long[width * words];
+    this.next = new long[width * words];
+
+    pad(cells);
+  }
+
+  /**
+   * Bring cells to life at random.
+   *
+   * @param random Where to get randomness from
+   * @param chance Chance of each cell starting alive
+   */
+  public void randomize(RandomXS128 random, float chance) {
+    Arrays.fill(cells, 0L);
+
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        if (random.nextFloat() < chance) {
+          cells[x * words + (y >>> 6)] |= 1L << y;
+        }
+      }
+    }
+
+    pad(cells);
+  }
+
+  public boolean get(int cellX, int cellY) {
+    return (cells[cellX * words + (cellY >>> 6)] & (1L << cellY)) != 0;
+  }
+
+  /**
+   * Set whether a cell is alive.
+   *
+   * @param cellX x of the cell
+   * @param cellY y of the cell
+   * @param alive Whether it's alive
+   */
+  public void set(int cellX, int cellY, boolean alive) {
+    int index = cellX * words + (cellY >>> 6);
+
+    if (alive) {
+      cells[index] |= 1L << cellY;
+    } else {
+      cells[index] &= ~(1L << cellY);
+    }
+  }
+
+  /**
+   * Run one generation. Every cell's next state only depends on the last generation, never on
+   * neighbours that were already updated this step.
+   *
+   * @param surviveLimit A living cell stays alive with at least this many living neighbours
+   * @param birthLimit   A dead cell comes alive with at least this many living neighbours
+   */
+  public void step(int surviveLimit, int birthLimit) {
+    for (int x = 0; x < width; x++) {
+      int left = (x - 1) * words;
+      int row = x * words;
+      int right = (x + 1) * words;
+
+      for (int w = 0; w < words; w++) {
+        long middle = cells[row + w];
+
+        // Off the left or right edge is all alive
+        long west = x > 0 ? cells[left + w] : -1L;
+        long east = x < width - 1 ? cells[right + w] : -1L;
+
+        // Bits coming in from the words either side, off the top & bottom is alive too
+        long westBelow = x > 0 && w > 0 ? cells[left + w - 1] : -1L;
+        long middleBelow = w > 0 ? cells[row + w - 1] : -1L;
+        long eastBelow = x < width - 1 && w > 0 ? cells[right + w - 1] : -1L;
+        long westAbove = x > 0 && w < words - 1 ? cells[left + w + 1] : -1L;
+        long middleAbove = w < words - 1 ? cells[row + w + 1] : -1L;
+        long eastAbove = x < width - 1 && w < words - 1 ? cells[right + w + 1] : -1L;
+
+        // Count all 8 neighbours of 64 cells at once, each bit of the count in its own long
+        long count0 = 0;
+        long count1 = 0;
+        long count2 = 0;
+        long count3 = 0;
+
+        neighbours[0] = west;
+        neighbours[1] = east;
+        neighbours[2] = (west << 1) | (westBelow >>> 63);
+        neighbours[3] = (middle << 1) | (middleBelow >>> 63);
+        neighbours[4] = (east << 1) | (eastBelow >>> 63);
+        neighbours[5] = (west >>> 1) | (westAbove << 63);
+        neighbours[6] = (middle >>> 1) | (middleAbove << 63);
+        neighbours[7] = (east >>> 1) | (eastAbove << 63);
+
+        for (long neighbour : neighbours) {
+          long carry0 = count0 & neighbour;
+          count0 ^= neighbour;
+          long carry1 = count1 & carry0;
+          count1 ^= carry0;
+          long carry2 = count2 & carry1;
+          count2 ^= carry1;
+          count3 |= carry2;
+        }
+
+        long survives = atLeast(surviveLimit, count0, count1, count2, count3);
+        long born = atLeast(birthLimit, count0, count1, count2, count3);
+
+        next[row + w] = (middle & survives) | (~middle & born);
+      }
+    }
+
+    pad(next);
+
+    long[] swap = cells;
+    cells = next;
+    next = swap;
+  }
+
+  /**
+   * Turn the grid into map geometry.
+   *
+   * @param alive What living cells become
+   * @param dead  What dead cells become
+   * @return Geometry, indexed [x][y]
+   */
+  public MapCell.Type[][] toGeometry(MapCell.Type alive, MapCell.Type dead) {
+    MapCell.Type[][] geometry = new MapCell.Type[width][height];
+
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        geometry[x][y] = get(x, y) ? alive : dead;
+      }
+    }
+
+    return geometry;
+  }
+
+  // Bits set wherever the count (a 4 bit number spread over 4 longs) is at least limit
+  private static long atLeast(int limit, long count0, long count1, long count2, long count3) {
+    switch (limit) {
+      case 0:
+        return -1L;
+      case 1:
+        return count0 | count1 | count2 | count3;
+      case 2:
+        return count1 | count2 | count3;
+      case 3:
+        return count3 | count2 | (count1 & count0);
+      case 4:
+        return count3 | count2;
+      case 5:
+        return count3 | (count2 & (count1 | count0));
+      case 6:
+        return count3 | (count2 & count1);
+      case 7:
+        return count3 | (count2 & count1 & count0);
+      case 8:
+        return count3;
+      default:
+        return limit < 0 ? -1L : 0L;
+    }
+  }
+
+  private void pad(long[] grid) {
+    if (padding != 0) {
+      for (int x = 0; x < width; x++) {
+        grid[x * words + words - 1] |= padding;
+      }
+    }
+  }
+}
@@ -0,0 +1,223 @@
+package me.dannytatom.xibalba.world.generators;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+import me.dannytatom.xibalba.world.MapCell;
+
+class Regions {
+  private final int width;
+  private final int height;
+  private final int[] parents;
+  private final int[] sizes;
+
+  /**
+   * Every connected area of floor on a level, found in one pass with union-find instead of flood
+   * filling from each cell. Cells are indexed x * height + y.
+   *
+   * @param geometry The level
+   */
+  Regions(MapCell.Type[][] geometry) {
+    width = geometry.length;
+    height = geometry[0].length;
+    parents = new int[width * height];
+    sizes = new int[width * height];
+
+    Arrays.fill(parents, -1);
+
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        if (geometry[x][y] != MapCell.Type.FLOOR) {
+          continue;
+        }
+
+        int cell = x * height + y;
+        parents[cell] = cell;
+        sizes[cell] = 1;
+
+        // Only need to look back, anything ahead will look back at us
+        if (x > 0 && geometry[x - 1][y] == MapCell.Type.FLOOR) {
+          union(cell, cell - height);
+        }
+
+        if (y > 0 && geometry[x][y - 1] == MapCell.Type.FLOOR) {
+          union(cell, cell - 1);
+        }
+      }
+    }
+  }
+
+  /**
+   * Keep one connected area of floor and wall off everything else. If the biggest area isn't
+   * open enough on its own, the next biggest ones get tunnelled to it until it is.
+   *
+   * @param geometry    The level, gets changed
+   * @param minimumOpen How many floor cells we want
+   */
+  static void connect(MapCell.Type[][] geometry, int minimumOpen) {
+    Regions regions = new Regions(geometry);
+    IntArray roots = regions.rootsBySize();
+
+    if (roots.size == 0) {
+      return;
+    }
+
+    int main = roots.get(0);
+    int open = regions.sizes[main];
+
+    if (open < minimumOpen && roots.size > 1) {
+      int[] nearest = regions.nearestCells(main);
+
+      for (int i = 1; i < roots.size && open < minimumOpen; i++) {
+        int root = roots.get(i);
+
+        open += regions.sizes[root] + regions.tunnel(geometry, root, nearest[root]);
+      }
+    }
+
+    // Tunnels might have joined up more than we asked for, so find what's connected now
+    if (roots.size > 1 && open > regions.sizes[main]) {
+      regions = new Regions(geometry);
+      main = regions.rootsBySize().get(0);
+    }
+
+    for (int x = 0; x < regions.width; x++) {
+      for (int y = 0; y < regions.height; y++) {
+        int cell = x * regions.height + y;
+
+        if (geometry[x][y] == MapCell.Type.FLOOR && regions.find(cell) != main) {
+          geometry[x][y] = MapCell.Type.WALL;
+        }
+      }
+    }
+  }
+
+  // For every cell, the closest cell in the given area. One breadth first search out from the
+  // whole area, instead of searching the area again for every tunnel
+  private int[] nearestCells(int root) {
+    int[] nearest = new int[parents.length];
+    int[] queue = new int[parents.length];
+    int head = 0;
+    int tail = 0;
+
+    Arrays.fill(nearest, -1);
+
+    for (int cell = 0; cell < parents.length; cell++) {
+      if (parents[cell] != -1 && find(cell) == root) {
+        nearest[cell] = cell;
+        queue[tail++] = cell;
+      }
+    }
+
+    while (head < tail) {
+      int cell = queue[head++];
+      int cellX = cell / height;
+      int cellY = cell % height;
+
+      if (cellX > 0 && nearest[cell - height] == -1) {
+        nearest[cell - height] = nearest[cell];
+        queue[tail++] = cell - height;
+      }
+
+      if (cellX < width - 1 && nearest[cell + height] == -1) {
+        nearest[cell + height] = nearest[cell];
+        queue[tail++] = cell + height;
+      }
+
+      if (cellY > 0 && nearest[cell - 1] == -1) {
+        nearest[cell - 1] = nearest[cell];
+        queue[tail++] = cell - 1;
+      }
+
+      if (cellY < height - 1 && nearest[cell + 1] == -1) {
+        nearest[cell + 1] = nearest[cell];
+        queue[tail++] = cell + 1;
+      }
+    }
+
+    return nearest;
+  }
+
+  // Dig an L shaped tunnel between two cells, returns how many walls got dug through
+  private int tunnel(MapCell.Type[][] geometry, int from, int to) {
+    int fromX = from / height;
+    int fromY = from % height;
+    int toX = to / height;
+    int toY = to % height;
+    int dug = 0;
+
+    for (int x = Math.min(fromX, toX); x <= Math.max(fromX, toX); x++) {
+      dug += dig(geometry, x, fromY);
+    }
+
+    for (int y = Math.min(fromY, toY); y <= Math.max(fromY, toY); y++) {
+      dug += dig(geometry, toX, y);
+    }
+
+    return dug;
+  }
+
+  private static int dig(MapCell.Type[][] geometry, int cellX, int cellY) {
+    if (geometry[cellX][cellY] == MapCell.Type.FLOOR) {
+      return 0;
+    }
+
+    geometry[cellX][cellY] = MapCell.Type.FLOOR;
+
+    return 1;
+  }
+
+  // Root of every area, biggest first
+  private IntArray rootsBySize() {
+    IntArray roots = new IntArray();
+
+    for (int cell = 0; cell < parents.length; cell++) {
+      if (parents[cell] == cell) {
+        roots.add(cell);
+      }
+    }
+
+    // Size in the high bits & root in the low ones, so sorting these sorts by size
+    long[] keys = new long[roots.size];
+
+    for (int i = 0; i < roots.size; i++) {
+      keys[i] = ((long) sizes[roots.get(i)] << 32) | roots.get(i);
+    }
+
+    Arrays.sort(keys);
+
+    for (int i = 0; i < keys.length; i++) {
+      roots.set(i, (int) keys[keys.length - 1 - i]);
+    }
+
+    return roots;
+  }
+
+  private int find(int cell) {
+    while (parents[cell] != cell) {
+      parents[cell] = parents[parents[cell]];
+      cell = parents[cell];
+    }
+
+    return cell;
+  }
+
+  private void union(int first, int second) {
+    int firstRoot = find(first);
+    int secondRoot = find(second);
+
+    if (firstRoot == secondRoot) {
+      return;
+    }
+
+    if (sizes[firstRoot] < sizes[secondRoot]) {
+      int swap = firstRoot;
+      firstRoot = secondRoot;
+      secondRoot = swap;
+    }
+
+    parents[secondRoot] = firstRoot;
+    sizes[firstRoot] += sizes[secondRoot];
+  }
+}
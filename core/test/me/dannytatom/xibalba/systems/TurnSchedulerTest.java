@@ -0,0 +1,167 @@
+package me.dannytatom.xibalba.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import me.dannytatom.xibalba.Debug;
+import me.dannytatom.xibalba.Main;
+import me.dannytatom.xibalba.components.AttributesComponent;
+import me.dannytatom.xibalba.components.PlayerComponent;
+import me.dannytatom.xibalba.components.PositionComponent;
+import me.dannytatom.xibalba.components.actions.MovementComponent;
+import me.dannytatom.xibalba.utils.ComponentMappers;
+import me.dannytatom.xibalba.world.EntityIndex;
+import me.dannytatom.xibalba.world.Map;
+import me.dannytatom.xibalba.world.MapCell;
+import me.dannytatom.xibalba.world.World;
+import me.dannytatom.xibalba.world.WorldManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TurnSchedulerTest {
+  private Engine engine;
+  private TurnScheduler scheduler;
+  private CountingSystem counter;
+
+  @Before
+  public void setUp() {
+    Main.debug = new Debug();
+    WorldManager.player = null;
+
+    WorldManager.world = new World();
+    WorldManager.world.maps.add(new Map(0, "test", new MapCell.Type[120][40]));
+
+    WorldManager.entityIndex = new EntityIndex();
+
+    engine = new Engine();
+    engine.addEntityListener(Family.all(PositionComponent.class).get(), WorldManager.entityIndex);
+
+    scheduler = new TurnScheduler();
+    counter = new CountingSystem();
+
+    engine.addSystem(scheduler);
+    engine.addSystem(counter);
+  }
+
+  @After
+  public void tearDown() {
+    WorldManager.player = null;
+    WorldManager.world = null;
+    WorldManager.entityIndex = null;
+  }
+
+  @Test
+  public void actorsActAsOftenAsTheirSpeedAllows() {
+    Entity fast = actor(100, 0, 0);
+    Entity medium = actor(50, 0, 0);
+    Entity slow = actor(20, 0, 0);
+
+    for (int i = 0; i < 100; i++) {
+      engine.update(0);
+    }
+
+    assertEquals(100, counter.acts.get(fast, 0));
+    assertEquals(50, counter.acts.get(medium, 0));
+    assertEquals(20, counter.acts.get(slow, 0));
+  }
+
+  @Test
+  public void dormantActorsCatchUpOnEnergy() {
+    Entity player = player();
+    Entity far = actor(50, 100, 0);
+
+    for (int turn = 1; turn <= 40; turn++) {
+      engine.update(0);
+    }
+
+    // The player acts every turn, the far one only every few
+    assertEquals(40, counter.acts.get(player, 0));
+    assertEquals(IntArray.with(1, 9, 17, 25, 33), counter.turns.get(far));
+
+    // Whatever they sat out got given back when they came up
+    AttributesComponent attributes = ComponentMappers.attributes.get(far);
+    int spent = counter.acts.get(far, 0) * MovementComponent.COST;
+
+    assertEquals(50 + 50 * 33, attributes.energy + spent);
+  }
+
+  @Test
+  public void wakingBringsADormantActorForward() {
+    player();
+    Entity far = actor(50, 100, 0);
+
+    for (int turn = 1; turn <= 10; turn++) {
+      engine.update(0);
+    }
+
+    assertEquals(IntArray.with(1, 9), counter.turns.get(far));
+
+    scheduler.wake(far);
+    engine.update(0);
+
+    assertEquals(IntArray.with(1, 9, 11), counter.turns.get(far));
+  }
+
+  private Entity player() {
+    Entity player = actor(100, 0, 0);
+    player.add(new PlayerComponent());
+
+    WorldManager.player = player;
+
+    return player;
+  }
+
+  private Entity actor(int speed, int cellX, int cellY) {
+    Entity entity = new Entity();
+    entity.add(new AttributesComponent(
+        "test", "", AttributesComponent.Type.ANIMAL, speed, 5, 5, 1, 1, 1
+    ));
+    entity.add(new PositionComponent(cellX, cellY));
+
+    engine.addEntity(entity);
+
+    return entity;
+  }
+
+  // Acts whenever there's enough energy, and keeps track of when
+  private static class CountingSystem extends UsesEnergySystem {
+    final ObjectIntMap<Entity> acts = new ObjectIntMap<>();
+    final ObjectMap<Entity, IntArray> turns = new ObjectMap<>();
+    private int turn = 0;
+
+    CountingSystem() {
+      super(Family.all(AttributesComponent.class).get());
+    }
+
+    @Override
+    public void update(float deltaTime) {
+      turn += 1;
+
+      super.update(deltaTime);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+      AttributesComponent attributes = ComponentMappers.attributes.get(entity);
+
+      if (attributes.energy >= MovementComponent.COST) {
+        attributes.energy -= MovementComponent.COST;
+        acts.getAndIncrement(entity, 0, 1);
+
+        if (!turns.containsKey(entity)) {
+          turns.put(entity, new IntArray());
+        }
+
+        turns.get(entity).add(turn);
+      }
+    }
+  }
+}
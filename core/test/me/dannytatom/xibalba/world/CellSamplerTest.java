@@ -0,0 +1,71 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.gdx.utils.IntSet;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CellSamplerTest {
+  private static final MapCell.Type[] TYPES = MapCell.Type.values();
+  private static final int WIDTH = 30;
+  private static final int HEIGHT = 23;
+
+  @Test
+  public void changedKeepsEveryListInStep() {
+    Random random = new Random(7);
+    Map map = new Map(0, "test", new MapCell.Type[WIDTH][HEIGHT]);
+    map.cells = new byte[WIDTH * HEIGHT];
+
+    for (int i = 0; i < map.cells.length; i++) {
+      map.cells[i] = (byte) random.nextInt(TYPES.length);
+    }
+
+    CellSampler sampler = new CellSampler(map);
+    assertMatches(map, sampler);
+
+    for (int i = 0; i < 5000; i++) {
+      int index = random.nextInt(map.cells.length);
+      MapCell.Type from = map.getType(index);
+      MapCell.Type to = TYPES[random.nextInt(TYPES.length)];
+
+      map.cells[index] = (byte) to.ordinal();
+      sampler.changed(index, from, to);
+
+      if (i % 100 == 0) {
+        assertMatches(map, sampler);
+      }
+    }
+
+    assertMatches(map, sampler);
+  }
+
+  private static void assertMatches(Map map, CellSampler sampler) {
+    for (MapCell.Type type : TYPES) {
+      IntSet expected = new IntSet();
+
+      for (int index = 0; index < map.cells.length; index++) {
+        if (map.getType(index) == type) {
+          expected.add(index);
+        }
+      }
+
+      // Excluding everything makes it walk the whole list, so we get to see all of it
+      IntSet listed = new IntSet();
+      int picked = sampler.random(type, index -> {
+        assertTrue(type + " listed " + index, map.getType(index) == type);
+
+        listed.add(index);
+
+        return true;
+      });
+
+      assertEquals(-1, picked);
+      assertEquals(type.toString(), expected.size, sampler.count(type));
+      assertEquals(type.toString(), expected, listed);
+    }
+  }
+}
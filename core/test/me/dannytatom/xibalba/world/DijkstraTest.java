@@ -0,0 +1,158 @@
+package me.dannytatom.xibalba.world;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DijkstraTest {
+  private static final MapCell.Type[] LAND = {MapCell.Type.FLOOR};
+  private static final int WIDTH = 50;
+  private static final int HEIGHT = 37;
+
+  private Random random;
+  private Map map;
+
+  @Before
+  public void setUp() {
+    random = new Random(42);
+    map = new Map(0, "test", new MapCell.Type[WIDTH][HEIGHT]);
+    map.cells = new byte[WIDTH * HEIGHT];
+
+    for (int i = 0; i < map.cells.length; i++) {
+      MapCell.Type type = random.nextFloat() < .3f ? MapCell.Type.WALL : MapCell.Type.FLOOR;
+      map.cells[i] = (byte) type.ordinal();
+    }
+  }
+
+  @Test
+  public void movingOneGoalMatchesRebuild() {
+    Vector2 goal = randomFloor();
+    Dijkstra dijkstra = new Dijkstra(map, LAND, goals(goal));
+
+    for (int i = 0; i < 50; i++) {
+      goal = step(goal);
+
+      dijkstra.moveGoals(goals(goal));
+      assertSameAsRebuild(dijkstra, goals(goal));
+    }
+  }
+
+  @Test
+  public void movingSomeGoalsMatchesRebuild() {
+    Array<Vector2> goals = goals(randomFloor(), randomFloor(), randomFloor(), randomFloor());
+    Dijkstra dijkstra = new Dijkstra(map, LAND, goals);
+
+    for (int i = 0; i < 50; i++) {
+      int moved = random.nextInt(goals.size);
+      goals.set(moved, step(goals.get(moved)));
+
+      if (i % 10 == 0) {
+        goals.add(randomFloor());
+      }
+
+      dijkstra.moveGoals(goals);
+      assertSameAsRebuild(dijkstra, goals);
+    }
+  }
+
+  @Test
+  public void movingEveryGoalMatchesRebuild() {
+    Array<Vector2> goals = goals(randomFloor(), randomFloor(), randomFloor());
+    Dijkstra dijkstra = new Dijkstra(map, LAND, goals);
+
+    for (int i = 0; i < 20; i++) {
+      for (int j = 0; j < goals.size; j++) {
+        goals.set(j, step(goals.get(j)));
+      }
+
+      dijkstra.moveGoals(goals);
+      assertSameAsRebuild(dijkstra, goals);
+    }
+  }
+
+  @Test
+  public void changingCellsMatchesRebuild() {
+    Array<Vector2> goals = goals(randomFloor(), randomFloor());
+    Dijkstra dijkstra = new Dijkstra(map, LAND, goals);
+
+    for (int i = 0; i < 200; i++) {
+      int cellX = random.nextInt(WIDTH);
+      int cellY = random.nextInt(HEIGHT);
+
+      if (isGoal(goals, cellX, cellY)) {
+        continue;
+      }
+
+      int index = cellX * HEIGHT + cellY;
+      MapCell.Type type = map.getType(index) == MapCell.Type.FLOOR
+          ? MapCell.Type.WALL : MapCell.Type.FLOOR;
+
+      map.cells[index] = (byte) type.ordinal();
+
+      dijkstra.cellChanged(cellX, cellY);
+      assertSameAsRebuild(dijkstra, goals);
+    }
+  }
+
+  private void assertSameAsRebuild(Dijkstra dijkstra, Array<Vector2> goals) {
+    Dijkstra rebuilt = new Dijkstra(map, LAND, goals);
+
+    for (int x = 0; x < WIDTH; x++) {
+      for (int y = 0; y < HEIGHT; y++) {
+        assertEquals("Cell " + x + ", " + y, rebuilt.get(x, y), dijkstra.get(x, y));
+      }
+    }
+  }
+
+  private Vector2 randomFloor() {
+    while (true) {
+      int cellX = random.nextInt(WIDTH);
+      int cellY = random.nextInt(HEIGHT);
+
+      if (map.getType(cellX * HEIGHT + cellY) == MapCell.Type.FLOOR) {
+        return new Vector2(cellX, cellY);
+      }
+    }
+  }
+
+  // A floor cell next to the given one, or the same one if it's boxed in
+  private Vector2 step(Vector2 from) {
+    for (int i = 0; i < 16; i++) {
+      int cellX = (int) from.x + random.nextInt(3) - 1;
+      int cellY = (int) from.y + random.nextInt(3) - 1;
+
+      if (cellX >= 0 && cellX < WIDTH && cellY >= 0 && cellY < HEIGHT
+          && map.getType(cellX * HEIGHT + cellY) == MapCell.Type.FLOOR) {
+        return new Vector2(cellX, cellY);
+      }
+    }
+
+    return from;
+  }
+
+  private static boolean isGoal(Array<Vector2> goals, int cellX, int cellY) {
+    for (Vector2 goal : goals) {
+      if ((int) goal.x == cellX && (int) goal.y == cellY) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static Array<Vector2> goals(Vector2... positions) {
+    Array<Vector2> goals = new Array<>();
+
+    for (Vector2 position : positions) {
+      goals.add(position.cpy());
+    }
+
+    return goals;
+  }
+}
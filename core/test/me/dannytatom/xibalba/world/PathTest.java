@@ -0,0 +1,72 @@
+package me.dannytatom.xibalba.world;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PathTest {
+  @Test
+  public void stepsComeBackOutTheSame() {
+    int[][] cells = {{0, 0}, {255, 256}, {1000, 3}, {0, 65535}, {32767, 0}};
+    Path path = new Path();
+
+    for (int[] cell : cells) {
+      path.add(cell[0], cell[1]);
+    }
+
+    assertEquals(cells.length, path.size());
+
+    for (int i = 0; i < cells.length; i++) {
+      assertEquals(cells[i][0], path.getX(i));
+      assertEquals(cells[i][1], path.getY(i));
+    }
+
+    assertEquals(32767, path.getLastX());
+    assertEquals(0, path.getLastY());
+  }
+
+  @Test
+  public void advanceWalksAlongAndEmptiesAtTheEnd() {
+    Path path = new Path();
+    path.add(1, 2);
+    path.add(3, 4);
+    path.add(5, 6);
+
+    path.advance();
+
+    assertEquals(2, path.size());
+    assertEquals(3, path.getX(0));
+    assertEquals(4, path.getY(0));
+    assertEquals(5, path.getX(1));
+    assertEquals(6, path.getY(1));
+    assertEquals(5, path.getLastX());
+    assertEquals(6, path.getLastY());
+
+    path.advance();
+    assertEquals(1, path.size());
+    assertFalse(path.isEmpty());
+
+    path.advance();
+    assertEquals(0, path.size());
+    assertTrue(path.isEmpty());
+  }
+
+  @Test
+  public void refillingStartsFromTheBeginning() {
+    Path path = new Path();
+    path.add(1, 2);
+    path.add(3, 4);
+    path.advance();
+
+    path.clear();
+    assertTrue(path.isEmpty());
+
+    path.add(7, 8);
+
+    assertEquals(1, path.size());
+    assertEquals(7, path.getX(0));
+    assertEquals(8, path.getY(0));
+  }
+}
@@ -0,0 +1,89 @@
+package me.dannytatom.xibalba.world.generators;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CellularAutomatonTest {
+  // Odd heights, heights either side of a word boundary & more than one word per row
+  private static final int[][] SIZES = {{7, 13}, {33, 64}, {40, 65}, {21, 130}, {5, 200}};
+  private static final int[][] LIMITS = {{3, 5}, {4, 5}, {0, 8}, {8, 1}, {5, 4}};
+
+  @Test
+  public void stepMatchesCountingNeighbours() {
+    long seed = 1;
+
+    for (int[] size : SIZES) {
+      for (int[] limits : LIMITS) {
+        int width = size[0];
+        int height = size[1];
+
+        CellularAutomaton automaton = new CellularAutomaton(width, height);
+        automaton.randomize(new RandomXS128(seed++), .45f);
+
+        boolean[][] expected = copy(automaton, width, height);
+
+        for (int step = 0; step < 4; step++) {
+          automaton.step(limits[0], limits[1]);
+          expected = step(expected, limits[0], limits[1]);
+
+          for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+              assertEquals(
+                  width + "x" + height + " step " + step + " cell " + x + ", " + y,
+                  expected[x][y], automaton.get(x, y)
+              );
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private static boolean[][] copy(CellularAutomaton automaton, int width, int height) {
+    boolean[][] cells = new boolean[width][height];
+
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        cells[x][y] = automaton.get(x, y);
+      }
+    }
+
+    return cells;
+  }
+
+  // One generation the slow way, anything off the edge counts as alive
+  private static boolean[][] step(boolean[][] cells, int surviveLimit, int birthLimit) {
+    int width = cells.length;
+    int height = cells[0].length;
+    boolean[][] next = new boolean[width][height];
+
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        int alive = 0;
+
+        for (int i = -1; i <= 1; i++) {
+          for (int j = -1; j <= 1; j++) {
+            if (i == 0 && j == 0) {
+              continue;
+            }
+
+            int neighbourX = x + i;
+            int neighbourY = y + j;
+
+            if (neighbourX < 0 || neighbourX >= width || neighbourY < 0 || neighbourY >= height
+                || cells[neighbourX][neighbourY]) {
+              alive++;
+            }
+          }
+        }
+
+        next[x][y] = cells[x][y] ? alive >= surviveLimit : alive >= birthLimit;
+      }
+    }
+
+    return next;
+  }
+}
@@ -0,0 +1,106 @@
+package me.dannytatom.xibalba.world.generators;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+import me.dannytatom.xibalba.world.MapCell;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class RegionsTest {
+  private static final int BORDER = 2;
+
+  @Test
+  public void connectLeavesOneAreaInsideTheBorder() {
+    for (long seed = 1; seed <= 20; seed++) {
+      MapCell.Type[][] geometry = noise(new RandomXS128(seed), 60, 45);
+
+      // Asking for every cell makes it tunnel to everything it can
+      Regions.connect(geometry, 60 * 45);
+
+      assertEquals("Seed " + seed, 1, countAreas(geometry));
+
+      for (int x = 0; x < geometry.length; x++) {
+        for (int y = 0; y < geometry[x].length; y++) {
+          if (isBorder(geometry, x, y)) {
+            assertEquals("Seed " + seed + " cell " + x + ", " + y,
+                MapCell.Type.WALL, geometry[x][y]);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void connectWallsOffEverythingButTheBiggestArea() {
+    for (long seed = 1; seed <= 20; seed++) {
+      MapCell.Type[][] geometry = noise(new RandomXS128(seed), 40, 70);
+
+      Regions.connect(geometry, 0);
+
+      assertEquals("Seed " + seed, 1, countAreas(geometry));
+    }
+  }
+
+  private static MapCell.Type[][] noise(RandomXS128 random, int width, int height) {
+    MapCell.Type[][] geometry = new MapCell.Type[width][height];
+
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        boolean open = !isBorder(geometry, x, y) && random.nextFloat() < .4f;
+
+        geometry[x][y] = open ? MapCell.Type.FLOOR : MapCell.Type.WALL;
+      }
+    }
+
+    return geometry;
+  }
+
+  private static boolean isBorder(MapCell.Type[][] geometry, int cellX, int cellY) {
+    return cellX < BORDER || cellX >= geometry.length - BORDER
+        || cellY < BORDER || cellY >= geometry[0].length - BORDER;
+  }
+
+  // How many 4-connected areas of floor there are, by flood filling
+  private static int countAreas(MapCell.Type[][] geometry) {
+    int width = geometry.length;
+    int height = geometry[0].length;
+    boolean[][] seen = new boolean[width][height];
+    int[] stack = new int[width * height];
+    int areas = 0;
+
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        if (seen[x][y] || geometry[x][y] != MapCell.Type.FLOOR) {
+          continue;
+        }
+
+        areas++;
+        seen[x][y] = true;
+
+        int size = 0;
+        stack[size++] = x * height + y;
+
+        while (size > 0) {
+          int cell = stack[--size];
+          int cellX = cell / height;
+          int cellY = cell % height;
+          int[][] around = {
+              {cellX - 1, cellY}, {cellX + 1, cellY}, {cellX, cellY - 1}, {cellX, cellY + 1}
+          };
+
+          for (int[] next : around) {
+            if (next[0] >= 0 && next[0] < width && next[1] >= 0 && next[1] < height
+                && !seen[next[0]][next[1]] && geometry[next[0]][next[1]] == MapCell.Type.FLOOR) {
+              seen[next[0]][next[1]] = true;
+              stack[size++] = next[0] * height + next[1];
+            }
+          }
+        }
+      }
+    }
+
+    return areas;
+  }
+}